@@ -0,0 +1,107 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.BatchSentenceBoundaries;
+import cc.redpen.SentenceBoundaries;
+import cc.redpen.SentenceExtractor;
+import cc.redpen.TerminatorEngine;
+import cc.redpen.util.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Segmentation of many short texts such as reviews, with the batch API and with
+ * {@link SentenceExtractor#extract} called in a loop.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchBenchmark {
+    private static final int TEXT_COUNT = 10000;
+
+    @Param({"EN", "JA"})
+    public Corpus corpus;
+
+    @Param({"REGEX", "CHAR_TABLE"})
+    public TerminatorEngine engine;
+
+    private SentenceExtractor extractor;
+    private List<String> texts;
+    private final SentenceBoundaries boundaries = new SentenceBoundaries();
+    private final BatchSentenceBoundaries batchBoundaries = new BatchSentenceBoundaries();
+
+    @Setup
+    public void setUp() {
+        extractor = new SentenceExtractor(corpus.createSymbolTable(), engine);
+        String text = corpus.generate(TEXT_COUNT * 200);
+        Random random = new Random(0);
+        texts = new ArrayList<>(TEXT_COUNT);
+        int position = 0;
+        for (int i = 0; i < TEXT_COUNT; i++) {
+            int length = 20 + random.nextInt(180);
+            texts.add(text.substring(position, position + length));
+            position += length;
+        }
+    }
+
+    @Benchmark
+    public int extractPairsInLoop() {
+        int count = 0;
+        for (String text : texts) {
+            List<Pair<Integer, Integer>> positions = new ArrayList<>();
+            extractor.extract(text, positions);
+            count += positions.size();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int extractBoundariesInLoop() {
+        int count = 0;
+        for (String text : texts) {
+            boundaries.clear();
+            extractor.extract(text, boundaries);
+            count += boundaries.size();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public BatchSentenceBoundaries extractBatch() {
+        extractor.extractBatch(texts, batchBoundaries);
+        return batchBoundaries;
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.SentenceExtractor;
+import cc.redpen.TerminatorEngine;
+import cc.redpen.config.SymbolTable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of constructing a {@link SymbolTable} and a {@link SentenceExtractor}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstructionBenchmark {
+    @Param({"EN", "JA", "JA_HANKAKU", "JA_ZENKAKU2"})
+    public Corpus corpus;
+
+    @Param({"REGEX", "CHAR_TABLE"})
+    public TerminatorEngine engine;
+
+    private SymbolTable symbolTable;
+
+    @Setup
+    public void setUp() {
+        symbolTable = corpus.createSymbolTable();
+    }
+
+    @Benchmark
+    public SymbolTable constructSymbolTable() {
+        return corpus.createSymbolTable();
+    }
+
+    @Benchmark
+    public SentenceExtractor constructExtractor() {
+        return new SentenceExtractor(symbolTable, engine);
+    }
+
+    @Benchmark
+    public SentenceExtractor constructAll() {
+        return new SentenceExtractor(corpus.createSymbolTable(), engine);
+    }
+}
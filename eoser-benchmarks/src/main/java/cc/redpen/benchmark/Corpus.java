@@ -0,0 +1,88 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.config.SymbolTable;
+
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * Synthetic corpora for the benchmarks. Each corpus is generated from a fixed seed
+ * so that the runs are comparable between versions.
+ */
+public enum Corpus {
+    EN("en", "", new String[]{
+            "This is a pen. ", "Is it a cat? ", "It is not! ", "He said \"yes.\" ",
+            "The quick brown fox jumps over the lazy dog. ", "We met at the station "}),
+    JA("ja", "", new String[]{
+            "これはペンです。", "あれは猫ですか？", "違います！", "彼は「はい。」と言った。",
+            "今日は天気が良いので散歩に行きました。", "駅で会いました"}),
+    JA_HANKAKU("ja", "hankaku", new String[]{
+            "これはペンです.", "あれは猫ですか?", "違います!", "彼は「はい.」と言った.",
+            "今日は天気が良いので散歩に行きました.", "駅で会いました"}),
+    JA_ZENKAKU2("ja", "zenkaku2", new String[]{
+            "これはペンです．", "あれは猫ですか？", "違います！", "彼は「はい．」と言った．",
+            "今日は天気が良いので散歩に行きました．", "駅で会いました"}),
+    MIXED("ja", "", new String[]{
+            "これはペンです。", "This is a pen. ", "あれは猫ですか？", "Is it a cat? ",
+            "EOSer version 1.1 で確認しました。", "He said \"yes.\" "}),
+    ABBREVIATIONS("en", "", new String[]{
+            "Mr. Smith met Dr. Jones at 10 a.m. today. ", "Example Co., Ltd. is in the U.S.A. now. ",
+            "See Jan. 5, i.e. the day after. ", "Mrs. Brown arrived at 3 p.m. as planned. ",
+            "Prof. White, Ph.D. of Example Inc. said so. "}),
+    PERIOD_RUNS("en", "", new String[]{
+            "Wait..... ", "Really.......... ", "Hmm... ok. ", "....................... ",
+            "And then. . . nothing. "});
+
+    private final String lang;
+    private final String variant;
+    private final String[] fragments;
+
+    Corpus(String lang, String variant, String[] fragments) {
+        this.lang = lang;
+        this.variant = variant;
+        this.fragments = fragments;
+    }
+
+    /**
+     * Create the symbol table of the language of the corpus.
+     *
+     * @return symbol table
+     */
+    public SymbolTable createSymbolTable() {
+        return new SymbolTable(lang, Optional.of(variant), new ArrayList<>());
+    }
+
+    /**
+     * Generate a text of the corpus.
+     *
+     * @param length number of characters
+     * @return text
+     */
+    public String generate(int length) {
+        Random random = new Random(length);
+        StringBuilder sb = new StringBuilder(length + 64);
+        while (sb.length() < length) {
+            sb.append(fragments[random.nextInt(fragments.length)]);
+        }
+        sb.setLength(length);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,84 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.SentenceBoundaries;
+import cc.redpen.SentenceExtractor;
+import cc.redpen.TerminatorEngine;
+import cc.redpen.util.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link SentenceExtractor#extract} on one megabyte of each corpus.
+ * Run with {@code -prof gc} to see the allocation per operation, that is per megabyte.
+ * {@code extractBoundaries} reuses its sink and should allocate next to nothing per
+ * sentence, while {@code extractPairs} allocates a pair and two boxed integers for each.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExtractBenchmark {
+    private static final int LENGTH = 1024 * 1024;
+
+    @Param({"EN", "JA", "JA_HANKAKU", "JA_ZENKAKU2", "MIXED", "ABBREVIATIONS", "PERIOD_RUNS"})
+    public Corpus corpus;
+
+    @Param({"REGEX", "CHAR_TABLE"})
+    public TerminatorEngine engine;
+
+    private SentenceExtractor extractor;
+    private String text;
+    private final SentenceBoundaries boundaries = new SentenceBoundaries();
+
+    @Setup
+    public void setUp() {
+        extractor = new SentenceExtractor(corpus.createSymbolTable(), engine);
+        text = corpus.generate(LENGTH);
+    }
+
+    @Benchmark
+    public List<Pair<Integer, Integer>> extractPairs() {
+        List<Pair<Integer, Integer>> positions = new ArrayList<>();
+        extractor.extract(text, positions);
+        return positions;
+    }
+
+    @Benchmark
+    public SentenceBoundaries extractBoundaries() {
+        boundaries.clear();
+        extractor.extract(text, boundaries);
+        return boundaries;
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.SentenceBoundaries;
+import cc.redpen.SentenceExtractor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling of {@link SentenceExtractor#extract} with the size of the input,
+ * from one kilobyte to fifty megabytes of characters. The time per character should
+ * stay flat, also for the abbreviations which used to make the extraction quadratic.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExtractSizeBenchmark {
+    @Param({"EN", "JA", "ABBREVIATIONS"})
+    public Corpus corpus;
+
+    @Param({"1024", "65536", "1048576", "10485760", "52428800"})
+    public int length;
+
+    private SentenceExtractor extractor;
+    private String text;
+    private final SentenceBoundaries boundaries = new SentenceBoundaries();
+
+    @Setup
+    public void setUp() {
+        extractor = new SentenceExtractor(corpus.createSymbolTable());
+        text = corpus.generate(length);
+    }
+
+    @Benchmark
+    public SentenceBoundaries extract() {
+        boundaries.clear();
+        extractor.extract(text, boundaries);
+        return boundaries;
+    }
+}
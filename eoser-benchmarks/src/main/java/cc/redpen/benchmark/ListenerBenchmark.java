@@ -0,0 +1,84 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.SentenceBoundaries;
+import cc.redpen.SentenceExtractor;
+import cc.redpen.util.LongAdderSegmentationListener;
+import cc.redpen.util.SegmentationListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the segmentation counters on one megabyte of text. {@code none} uses the default
+ * no-op listener and {@code longAdder} aggregates the counters into
+ * {@link LongAdderSegmentationListener}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListenerBenchmark {
+    private static final int LENGTH = 1024 * 1024;
+
+    @Param({"EN", "ABBREVIATIONS", "PERIOD_RUNS"})
+    public Corpus corpus;
+
+    private String text;
+    private SentenceExtractor none;
+    private SentenceExtractor longAdder;
+    private final SentenceBoundaries boundaries = new SentenceBoundaries();
+
+    @Setup
+    public void setUp() {
+        text = corpus.generate(LENGTH);
+        none = SentenceExtractor.builder(corpus.createSymbolTable())
+                .listener(SegmentationListener.NONE)
+                .build();
+        longAdder = SentenceExtractor.builder(corpus.createSymbolTable())
+                .listener(new LongAdderSegmentationListener())
+                .build();
+    }
+
+    @Benchmark
+    public SentenceBoundaries none() {
+        boundaries.clear();
+        none.extract(text, boundaries);
+        return boundaries;
+    }
+
+    @Benchmark
+    public SentenceBoundaries longAdder() {
+        boundaries.clear();
+        longAdder.extract(text, boundaries);
+        return boundaries;
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.SentenceExtractor;
+import cc.redpen.util.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Speedup of {@link SentenceExtractor#extractInParallel(String, List, ForkJoinPool)} with
+ * the number of threads on eight megabytes of text whose sentences end with line breaks.
+ * {@code threads=0} runs the serial {@link SentenceExtractor#extract(String, List)} instead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ParallelBenchmark {
+    private static final int LENGTH = 8 * 1024 * 1024;
+
+    @Param({"EN", "JA"})
+    public Corpus corpus;
+
+    @Param({"0", "1", "2", "4", "8"})
+    public int threads;
+
+    private SentenceExtractor extractor;
+    private String text;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        extractor = new SentenceExtractor(corpus.createSymbolTable());
+        // the line breaks after the sentences are the boundaries to split the text at
+        text = corpus.generate(LENGTH).replace(". ", ".\n").replace("。", "。\n");
+        pool = threads > 0 ? new ForkJoinPool(threads) : null;
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public List<Pair<Integer, Integer>> extract() {
+        List<Pair<Integer, Integer>> positions = new ArrayList<>();
+        if (pool == null) {
+            extractor.extract(text, positions);
+        } else {
+            extractor.extractInParallel(text, positions, pool);
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.config.Symbol;
+import cc.redpen.config.SymbolTable;
+import cc.redpen.config.SymbolTableSnapshot;
+import cc.redpen.config.SymbolType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looking up the symbol of every character of a text, as validators do. {@code hashMap} is
+ * the boxing lookup the symbol table used to do, kept as a baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SymbolLookupBenchmark {
+    @Param({"EN", "JA"})
+    public Corpus corpus;
+
+    private String text;
+
+    private SymbolTable symbolTable;
+
+    private SymbolTableSnapshot snapshot;
+
+    private Map<Character, Symbol> values;
+
+    @Setup
+    public void setUp() {
+        text = corpus.generate(64 * 1024);
+        symbolTable = corpus.createSymbolTable();
+        snapshot = SymbolTableSnapshot.of(symbolTable);
+        values = new HashMap<>();
+        for (SymbolType type : symbolTable.getNames()) {
+            Symbol symbol = symbolTable.getSymbol(type);
+            values.put(symbol.getValue(), symbol);
+        }
+    }
+
+    @Benchmark
+    public int hashMap() {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (values.get(text.charAt(i)) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int symbolTable() {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (symbolTable.getSymbolByValue(text.charAt(i)) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int snapshot() {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (snapshot.getSymbolByValue(text.charAt(i)) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.EOSerException;
+import cc.redpen.SentenceExtractor;
+import cc.redpen.TerminatorEngine;
+import cc.redpen.config.ConfigurationLoader;
+import cc.redpen.config.Symbol;
+import cc.redpen.config.SymbolTable;
+import cc.redpen.config.SymbolTableSnapshot;
+import cc.redpen.config.SymbolType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup cost of a symbol configuration given as XML, loaded with the DOM or the streaming
+ * parser, versus a {@link SymbolTableSnapshot}.
+ * The XML document lists every symbol of the corpus language, as a full custom configuration would.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SymbolTableLoadBenchmark {
+    @Param({"EN", "JA", "JA_ZENKAKU2"})
+    public Corpus corpus;
+
+    private String lang;
+
+    private String xml;
+
+    private byte[] xmlBytes;
+
+    private byte[] snapshot;
+
+    @Setup
+    public void setUp() throws IOException {
+        SymbolTable symbolTable = corpus.createSymbolTable();
+        lang = symbolTable.getLang();
+        xml = toXml(symbolTable);
+        xmlBytes = xml.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SymbolTableSnapshot.of(symbolTable).write(bytes);
+        snapshot = bytes.toByteArray();
+    }
+
+    private static String toXml(SymbolTable symbolTable) {
+        StringBuilder sb = new StringBuilder("<symbol-conf lang=\"").append(symbolTable.getLang()).append("\"><symbols>");
+        for (SymbolType type : symbolTable.getNames()) {
+            Symbol symbol = symbolTable.getSymbol(type);
+            sb.append("<symbol name=\"").append(type.name())
+                    .append("\" value=\"").append(escape(String.valueOf(symbol.getValue())))
+                    .append("\" invalid-chars=\"").append(escape(new String(symbol.getInvalidChars())))
+                    .append("\" before-space=\"").append(symbol.isNeedBeforeSpace())
+                    .append("\" after-space=\"").append(symbol.isNeedAfterSpace())
+                    .append("\"/>");
+        }
+        return sb.append("</symbols></symbol-conf>").toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    @Benchmark
+    public SymbolTable loadXml() throws EOSerException {
+        return new SymbolTable(lang, Optional.empty(), new ConfigurationLoader().loadFromString(xml));
+    }
+
+    @Benchmark
+    public SymbolTable loadXmlStreaming() throws EOSerException {
+        return new SymbolTable(lang, Optional.empty(),
+                new ConfigurationLoader().loadStreaming(new ByteArrayInputStream(xmlBytes)));
+    }
+
+    @Benchmark
+    public SymbolTableSnapshot loadSnapshot() throws IOException {
+        return SymbolTableSnapshot.read(new ByteArrayInputStream(snapshot));
+    }
+
+    @Benchmark
+    public SentenceExtractor loadXmlAndConstruct() throws EOSerException {
+        return new SentenceExtractor(loadXml(), TerminatorEngine.REGEX);
+    }
+
+    @Benchmark
+    public SentenceExtractor loadSnapshotAndConstruct() throws IOException {
+        return new SentenceExtractor(loadSnapshot(), TerminatorEngine.REGEX);
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.SentenceExtractor;
+import cc.redpen.config.SymbolTable;
+import cc.redpen.config.SymbolTableSnapshot;
+import cc.redpen.util.CharTableTerminatorPattern;
+import cc.redpen.util.RegexTerminatorPattern;
+import cc.redpen.util.TerminatorMatcher;
+import cc.redpen.util.TerminatorPattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Finding every terminator of one megabyte of text. {@code regex} tries the regex at every
+ * position, {@code skippingRegex} skips to the candidate characters before running it and
+ * {@code charTable} does not use a regex at all.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TerminatorScanBenchmark {
+    private static final int LENGTH = 1024 * 1024;
+
+    @Param({"EN", "JA", "MIXED"})
+    public Corpus corpus;
+
+    private String text;
+
+    private TerminatorPattern regex;
+
+    private TerminatorPattern skippingRegex;
+
+    private TerminatorPattern charTable;
+
+    @Setup
+    public void setUp() {
+        text = corpus.generate(LENGTH);
+        SymbolTable symbolTable = corpus.createSymbolTable();
+        SymbolTableSnapshot snapshot = SymbolTableSnapshot.of(symbolTable);
+        Pattern pattern = new SentenceExtractor(symbolTable).constructEndSentencePattern();
+        regex = new RegexTerminatorPattern(pattern);
+        skippingRegex = new RegexTerminatorPattern(pattern, snapshot.getFullStops());
+        charTable = new CharTableTerminatorPattern(snapshot.getFullStops(), snapshot.getRightQuotations());
+    }
+
+    private int countTerminators(TerminatorPattern pattern) {
+        TerminatorMatcher matcher = pattern.matcher(text);
+        int count = 0;
+        int position = 0;
+        while (matcher.find(position)) {
+            position = matcher.end();
+            count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int regex() {
+        return countTerminators(regex);
+    }
+
+    @Benchmark
+    public int skippingRegex() {
+        return countTerminators(skippingRegex);
+    }
+
+    @Benchmark
+    public int charTable() {
+        return countTerminators(charTable);
+    }
+}
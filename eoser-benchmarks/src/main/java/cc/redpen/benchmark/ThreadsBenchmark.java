@@ -0,0 +1,110 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.EOSerException;
+import cc.redpen.EOSerMain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time to segment many small files with {@code eoser --threads N}. The sentences are
+ * printed to a stream which discards them, so the time does not include the terminal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ThreadsBenchmark {
+    private static final int FILE_COUNT = 2000;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"false", "true"})
+    public boolean mmap;
+
+    private Path directory;
+    private String[] arguments;
+    private PrintStream stdout;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("eoser-benchmark");
+        List<String> list = new ArrayList<>();
+        list.add("--threads");
+        list.add(String.valueOf(threads));
+        if (mmap) {
+            list.add("--mmap");
+        }
+        String text = Corpus.EN.generate(8 * 1024);
+        for (int i = 0; i < FILE_COUNT; i++) {
+            Path file = directory.resolve("input" + i + ".txt");
+            Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+            list.add(file.toString());
+        }
+        arguments = list.toArray(new String[list.size()]);
+        stdout = System.out;
+        System.setOut(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        System.setOut(stdout);
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int segmentFiles() throws EOSerException {
+        return EOSerMain.run(arguments);
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.SentenceBoundaries;
+import cc.redpen.SentenceExtractor;
+import cc.redpen.TerminatorEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Segmentation of one megabyte of UTF-8 encoded text, decoding it into a String first
+ * versus finding the byte offsets directly.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Utf8Benchmark {
+    private static final int LENGTH = 1024 * 1024;
+
+    @Param({"EN", "JA", "MIXED"})
+    public Corpus corpus;
+
+    @Param({"REGEX", "CHAR_TABLE"})
+    public TerminatorEngine engine;
+
+    private SentenceExtractor extractor;
+    private byte[] bytes;
+    private ByteBuffer direct;
+    private final SentenceBoundaries boundaries = new SentenceBoundaries();
+
+    @Setup
+    public void setUp() {
+        extractor = new SentenceExtractor(corpus.createSymbolTable(), engine);
+        bytes = corpus.generate(LENGTH).getBytes(StandardCharsets.UTF_8);
+        direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+    }
+
+    @Benchmark
+    public SentenceBoundaries decodeAndExtract() {
+        boundaries.clear();
+        extractor.extract(new String(bytes, StandardCharsets.UTF_8), boundaries);
+        return boundaries;
+    }
+
+    @Benchmark
+    public SentenceBoundaries extractUtf8() {
+        boundaries.clear();
+        extractor.extractUtf8(bytes, boundaries);
+        return boundaries;
+    }
+
+    @Benchmark
+    public SentenceBoundaries extractUtf8Direct() {
+        boundaries.clear();
+        extractor.extractUtf8(direct, boundaries);
+        return boundaries;
+    }
+}
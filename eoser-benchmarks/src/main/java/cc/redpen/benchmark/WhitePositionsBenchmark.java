@@ -0,0 +1,86 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.benchmark;
+
+import cc.redpen.SentenceExtractor;
+import cc.redpen.util.WhiteWordAutomaton;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Positions covered by the default white words in a text dense with abbreviations,
+ * stored as boxed integers in a hash set as they used to be, or in a bit set by
+ * {@link WhiteWordAutomaton}. Run with {@code -prof gc} to compare the allocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WhitePositionsBenchmark {
+    private static final int LENGTH = 64 * 1024;
+
+    private List<String> whiteWords;
+    private WhiteWordAutomaton automaton;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        whiteWords = SentenceExtractor.getDefaultWhiteWords();
+        automaton = new WhiteWordAutomaton(whiteWords);
+        text = Corpus.ABBREVIATIONS.generate(LENGTH);
+    }
+
+    @Benchmark
+    public Set<Integer> boxed() {
+        Set<Integer> positions = new HashSet<>();
+        for (String whiteWord : whiteWords) {
+            int offset = 0;
+            int start;
+            while ((start = text.indexOf(whiteWord, offset)) >= 0) {
+                for (int i = start; i < start + whiteWord.length(); i++) {
+                    positions.add(i);
+                }
+                offset = start + whiteWord.length();
+            }
+        }
+        return positions;
+    }
+
+    @Benchmark
+    public BitSet bitSet() {
+        BitSet positions = new BitSet();
+        automaton.findPositions(text, positions);
+        return positions;
+    }
+}
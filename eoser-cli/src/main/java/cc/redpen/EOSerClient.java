@@ -0,0 +1,104 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Client of {@link EOSerServer}. A client keeps one connection and sends requests one
+ * after another, so it should not be shared among threads.
+ */
+public final class EOSerClient implements Closeable {
+    private final Socket socket;
+    private final BufferedReader reader;
+    private final Writer writer;
+
+    /**
+     * Constructor. Connects to the server on the loopback address.
+     *
+     * @param port port of the server
+     * @throws IOException when the server can not be connected
+     */
+    public EOSerClient(int port) throws IOException {
+        this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        this.socket.setTcpNoDelay(true);
+        this.reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.writer = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Segment a text on the server.
+     *
+     * @param text text to segment
+     * @param lang language, or null for the default language of the server
+     * @param type type of the symbols such as "hankaku", or null for the normal one
+     * @return sentences followed by the remaining text, as printed by eoser
+     * @throws EOSerException when the server reports an error or the connection fails
+     */
+    public List<String> segment(String text, String lang, String type) throws EOSerException {
+        try {
+            JSONObject request = new JSONObject().put("text", text);
+            if (lang != null) {
+                request.put("lang", lang);
+            }
+            if (type != null) {
+                request.put("type", type);
+            }
+            writer.write(request.toString());
+            writer.write('\n');
+            writer.flush();
+            String line = reader.readLine();
+            if (line == null) {
+                throw new EOSerException("Connection closed by the server");
+            }
+            JSONObject response = new JSONObject(line);
+            if (response.has("error")) {
+                throw new EOSerException(response.getString("error"));
+            }
+            JSONArray sentences = response.getJSONArray("sentences");
+            List<String> output = new ArrayList<>(sentences.length() + 1);
+            for (int i = 0; i < sentences.length(); i++) {
+                output.add(sentences.getString(i));
+            }
+            output.add(response.getString("remaining"));
+            return output;
+        } catch (IOException | JSONException e) {
+            throw new EOSerException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
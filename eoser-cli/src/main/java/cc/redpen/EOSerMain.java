@@ -1,25 +1,51 @@
 package cc.redpen;
 
+import cc.redpen.config.ConfigurationLoader;
+import cc.redpen.config.Symbol;
 import cc.redpen.config.SymbolTable;
-import cc.redpen.model.Sentence;
-import cc.redpen.util.Pair;
+import cc.redpen.config.SymbolTableSnapshot;
+import cc.redpen.util.WhiteWordAutomaton;
 import org.apache.commons.cli.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
 import java.io.PrintWriter;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class EOSerMain {
     private static final Logger LOG = LoggerFactory.getLogger(EOSerMain.class);
     private static final String PROGRAM = "eoser";
+    private static final int DECODE_BUFFER_SIZE = 64 * 1024;
+    private static final long MAX_MAPPED_REGION_SIZE = 64 * 1024 * 1024;
 
     public static void main(String... args) throws EOSerException {
         System.exit(run(args));
@@ -33,9 +59,63 @@ public class EOSerMain {
                 .withDescription("Displays version information and exits")
                 .create("v"));
 
-        options.addOption(OptionBuilder.withLongOpt("l")
+        options.addOption(OptionBuilder.withLongOpt("lang")
                 .withDescription("language")
-                .create("lang"));
+                .hasArg()
+                .withArgName("LANG")
+                .create("l"));
+
+        options.addOption(OptionBuilder.withLongOpt("mmap")
+                .withDescription("Memory-map input files and segment them as they are decoded")
+                .create("m"));
+
+        options.addOption(OptionBuilder.withLongOpt("threads")
+                .withDescription("Number of threads to segment input files concurrently")
+                .hasArg()
+                .withArgName("N")
+                .create("t"));
+
+        options.addOption(OptionBuilder.withLongOpt("output-dir")
+                .withDescription("Directory to write the sentences of each input file to a file of the same name")
+                .hasArg()
+                .withArgName("DIR")
+                .create("o"));
+
+        options.addOption(OptionBuilder.withLongOpt("white-words")
+                .withDescription("White word automaton file compiled with cc.redpen.WhiteWordCompiler")
+                .hasArg()
+                .withArgName("FILE")
+                .create("w"));
+
+        options.addOption(OptionBuilder.withLongOpt("symbol-conf")
+                .withDescription("Symbol configuration XML file")
+                .hasArg()
+                .withArgName("FILE")
+                .create());
+
+        options.addOption(OptionBuilder.withLongOpt("symbol-snapshot")
+                .withDescription("Symbol table snapshot file to load instead of the symbol configuration")
+                .hasArg()
+                .withArgName("FILE")
+                .create());
+
+        options.addOption(OptionBuilder.withLongOpt("export-symbol-snapshot")
+                .withDescription("Write the snapshot of the symbol table to the file and exit")
+                .hasArg()
+                .withArgName("FILE")
+                .create());
+
+        options.addOption(OptionBuilder.withLongOpt("server")
+                .withDescription("Run as a segmentation server on the loopback address")
+                .hasArg()
+                .withArgName("PORT")
+                .create("s"));
+
+        options.addOption(OptionBuilder.withLongOpt("connect")
+                .withDescription("Segment input files on the server listening to the port")
+                .hasArg()
+                .withArgName("PORT")
+                .create("c"));
 
         CommandLineParser commandLineParser = new BasicParser();
         CommandLine commandLine;
@@ -57,7 +137,6 @@ public class EOSerMain {
         }
         String lang = "en";
         if (commandLine.hasOption("l")) {
-            LOG.info("Set lang: \" {0} \"");
             lang = commandLine.getOptionValue("l");
         }
 
@@ -67,38 +146,374 @@ public class EOSerMain {
             inputFiles[i] = Paths.get(inputFileNames[i]);
         }
 
-        SentenceExtractor extractor = new SentenceExtractor(new SymbolTable(lang,
-                Optional.<String>empty(), new ArrayList<>()));
+        boolean mmap = commandLine.hasOption("m");
+        Path outputDirectory = null;
+        if (commandLine.hasOption("o")) {
+            outputDirectory = Paths.get(commandLine.getOptionValue("o"));
+        }
+        int threads = 1;
+        if (commandLine.hasOption("t")) {
+            try {
+                threads = Integer.parseInt(commandLine.getOptionValue("t"));
+            } catch (NumberFormatException e) {
+                threads = 0;
+            }
+            if (threads <= 0) {
+                LOG.error("Number of threads should be a positive integer: " + commandLine.getOptionValue("t"));
+                printHelp(options);
+                return -1;
+            }
+        }
 
-        for (Path inputFile : inputFiles) {
-            StringBuilder sb = new StringBuilder();
-            try (BufferedReader br = Files.newBufferedReader(inputFile)) {
-                String line;
-                while((line  = br.readLine()) != null) {
-                    sb.append(line);
+        if (commandLine.hasOption("s") || commandLine.hasOption("c")) {
+            String portValue = commandLine.getOptionValue(commandLine.hasOption("s") ? "s" : "c");
+            int port = parsePort(portValue);
+            if (port < 0) {
+                LOG.error("Port should be an integer from 0 to 65535: " + portValue);
+                printHelp(options);
+                return -1;
+            }
+            // the server segments with the default symbols and white words of each language
+            for (String option : new String[]{"white-words", "symbol-conf", "symbol-snapshot"}) {
+                if (commandLine.hasOption(option)) {
+                    LOG.error("--" + option + " can not be used with --server or --connect");
+                    printHelp(options);
+                    return -1;
                 }
+            }
+            if (commandLine.hasOption("s")) {
+                serve(port, lang, commandLine.hasOption("t") ? threads : Runtime.getRuntime().availableProcessors());
+            } else {
+                extractOnServer(port, lang, inputFiles);
+            }
+            return 0;
+        }
+
+        // not logged for the server, whose port should be the first line of stdout
+        if (commandLine.hasOption("l")) {
+            LOG.info("Set lang: \"{}\"", lang);
+        }
+        // all output files are checked before anything is written to them
+        Path[] outputFiles = outputDirectory != null ? resolveOutputFiles(inputFiles, outputDirectory) : null;
+
+        SymbolTableSnapshot snapshot = loadSymbolTable(commandLine, lang);
+        if (commandLine.hasOption("export-symbol-snapshot")) {
+            Path snapshotFile = Paths.get(commandLine.getOptionValue("export-symbol-snapshot"));
+            try {
+                snapshot.save(snapshotFile);
             } catch (IOException e) {
-                LOG.error("An error was reported: " + e.getMessage());
+                throw new EOSerException("Failed to write " + snapshotFile, e);
             }
-            List<Pair<Integer, Integer>> outputPositions = new ArrayList<>();
-            String all = sb.toString();
-            int lastPosition = extractor.extract(all, outputPositions);
-            List<Sentence> results = createSentences(outputPositions,all);
-            for (Sentence result : results) {
-                System.out.println(result.getContent());
+            return 0;
+        }
+        WhiteWordAutomaton whiteWords;
+        if (commandLine.hasOption("w")) {
+            Path whiteWordFile = Paths.get(commandLine.getOptionValue("w"));
+            try {
+                whiteWords = WhiteWordAutomaton.load(whiteWordFile);
+            } catch (IOException e) {
+                throw new EOSerException("Failed to load " + whiteWordFile, e);
             }
-            System.out.println(all.substring(lastPosition));
+        } else {
+            whiteWords = new WhiteWordAutomaton(SentenceExtractor.getDefaultWhiteWords());
         }
+        SentenceExtractor extractor = SentenceExtractor.builder(snapshot)
+                .whiteWords(whiteWords)
+                .engine(TerminatorEngine.REGEX)
+                .build();
 
+        if (threads == 1) {
+            for (int i = 0; i < inputFiles.length; i++) {
+                extract(extractor, inputFiles[i], mmap, outputFiles != null ? outputFiles[i] : null);
+            }
+        } else {
+            extractInParallel(extractor, inputFiles, mmap, outputFiles, threads);
+        }
         return 0;
     }
 
-    private static List<Sentence> createSentences(List<Pair<Integer, Integer>> outputPositions, String line) {
-        List<Sentence> output = new ArrayList<>();
-        for (Pair<Integer, Integer> outputPosition : outputPositions) {
-            output.add(new Sentence(line.substring(outputPosition.first, outputPosition.second), 0));
+    /**
+     * Get the output file of each input file in the output directory. Fails when an output
+     * file is one of the input files or when two input files are written to the same file,
+     * so that no input or output is overwritten.
+     */
+    private static Path[] resolveOutputFiles(Path[] inputFiles, Path outputDirectory) throws EOSerException {
+        Path[] outputFiles = new Path[inputFiles.length];
+        Map<Path, Path> inputsByOutput = new HashMap<>();
+        for (int i = 0; i < inputFiles.length; i++) {
+            Path outputFile = outputDirectory.resolve(inputFiles[i].getFileName());
+            Path previous = inputsByOutput.put(outputFile.toAbsolutePath().normalize(), inputFiles[i]);
+            if (previous != null) {
+                throw new EOSerException("Input files " + previous + " and " + inputFiles[i]
+                        + " are both written to " + outputFile);
+            }
+            outputFiles[i] = outputFile;
+        }
+        try {
+            Set<Path> inputPaths = new HashSet<>();
+            for (Path inputFile : inputFiles) {
+                if (Files.exists(inputFile)) {
+                    inputPaths.add(inputFile.toRealPath());
+                }
+            }
+            for (Path outputFile : outputFiles) {
+                if (Files.exists(outputFile) && inputPaths.contains(outputFile.toRealPath())) {
+                    throw new EOSerException("Output file " + outputFile + " is one of the input files");
+                }
+            }
+        } catch (IOException e) {
+            throw new EOSerException("Failed to check the output files in " + outputDirectory, e);
+        }
+        return outputFiles;
+    }
+
+    private static SymbolTableSnapshot loadSymbolTable(CommandLine commandLine, String lang) throws EOSerException {
+        if (commandLine.hasOption("symbol-snapshot")) {
+            Path snapshotFile = Paths.get(commandLine.getOptionValue("symbol-snapshot"));
+            try {
+                return SymbolTableSnapshot.load(snapshotFile);
+            } catch (IOException e) {
+                throw new EOSerException("Failed to load " + snapshotFile, e);
+            }
+        }
+        List<Symbol> customSymbols = new ArrayList<>();
+        if (commandLine.hasOption("symbol-conf")) {
+            File configFile = new File(commandLine.getOptionValue("symbol-conf"));
+            customSymbols = new ConfigurationLoader().loadStreaming(configFile);
+        }
+        return SymbolTableSnapshot.of(new SymbolTable(lang, Optional.<String>empty(), customSymbols));
+    }
+
+    private static int parsePort(String value) {
+        try {
+            int port = Integer.parseInt(value);
+            return port >= 0 && port <= 65535 ? port : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void serve(int port, String lang, int threads) throws EOSerException {
+        try (EOSerServer server = new EOSerServer(port, lang, threads)) {
+            System.out.println(server.getPort());
+            System.out.flush();
+            server.serve();
+        } catch (IOException e) {
+            throw new EOSerException("Failed to run the server on port " + port, e);
+        }
+    }
+
+    private static void extractOnServer(int port, String lang, Path[] inputFiles) throws EOSerException {
+        try (EOSerClient client = new EOSerClient(port)) {
+            for (Path inputFile : inputFiles) {
+                for (String sentence : client.segment(readJoinedLines(inputFile), lang, null)) {
+                    System.out.println(sentence);
+                }
+            }
+        } catch (IOException e) {
+            throw new EOSerException("Failed to connect to the server on port " + port, e);
+        }
+    }
+
+    private static void extract(SentenceExtractor extractor, Path inputFile, boolean mmap,
+                                Path outputFile) throws EOSerException {
+        if (outputFile == null) {
+            extract(extractor, inputFile, mmap, System.out);
+            return;
+        }
+        try (PrintStream out = new PrintStream(new BufferedOutputStream(Files.newOutputStream(outputFile)))) {
+            extract(extractor, inputFile, mmap, out);
+        } catch (IOException e) {
+            throw new EOSerException("Failed to write " + outputFile, e);
+        }
+    }
+
+    private static void extract(SentenceExtractor extractor, Path inputFile, boolean mmap, PrintStream out) {
+        if (mmap) {
+            try {
+                extractMapped(extractor, inputFile, out);
+            } catch (IOException e) {
+                LOG.error("An error was reported: " + e.getMessage());
+            }
+            return;
+        }
+        SentenceBoundaries boundaries = new SentenceBoundaries();
+        String all = readJoinedLines(inputFile);
+        int lastPosition = extractor.extract(all, boundaries);
+        for (int i = 0; i < boundaries.size(); i++) {
+            out.println(all.substring(boundaries.getStartPosition(i), boundaries.getEndPosition(i)));
+        }
+        out.println(all.substring(lastPosition));
+    }
+
+    /**
+     * Read the input file joining its lines without line breaks. Since a sentence can
+     * continue over a line break, the joined text has no guaranteed sentence boundary for
+     * {@link SentenceExtractor#extractInParallel(String, List)} to split it at, so a single
+     * file is segmented serially and {@code --threads} segments files concurrently instead.
+     */
+    private static String readJoinedLines(Path inputFile) {
+        StringBuilder sb = new StringBuilder();
+        try (BufferedReader br = Files.newBufferedReader(inputFile)) {
+            String line;
+            while((line  = br.readLine()) != null) {
+                sb.append(line);
+            }
+        } catch (IOException e) {
+            LOG.error("An error was reported: " + e.getMessage());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Segment files concurrently with a shared extractor. Outputs to stdout are printed
+     * in the order of the input files: the first file not printed yet prints directly,
+     * and only the files segmented ahead of it, at most as many as the threads, are
+     * buffered.
+     */
+    private static void extractInParallel(SentenceExtractor extractor, Path[] inputFiles, boolean mmap,
+                                          Path[] outputFiles, int threads) throws EOSerException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        Deque<OrderedOutput> pending = new ArrayDeque<>();
+        try {
+            for (int i = 0; i < inputFiles.length; i++) {
+                if (pending.size() >= threads) {
+                    awaitHead(pending);
+                }
+                Path inputFile = inputFiles[i];
+                Path outputFile = outputFiles != null ? outputFiles[i] : null;
+                OrderedOutput output = new OrderedOutput(pending.isEmpty());
+                output.future = executor.submit(() -> {
+                    if (outputFile != null) {
+                        extract(extractor, inputFile, mmap, outputFile);
+                        return null;
+                    }
+                    try (PrintStream out = new PrintStream(new BufferedOutputStream(output))) {
+                        extract(extractor, inputFile, mmap, out);
+                    }
+                    return null;
+                });
+                pending.add(output);
+            }
+            while (!pending.isEmpty()) {
+                awaitHead(pending);
+            }
+            System.out.flush();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitHead(Deque<OrderedOutput> pending) throws EOSerException {
+        try {
+            pending.poll().future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EOSerException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof EOSerException) {
+                throw (EOSerException) e.getCause();
+            }
+            throw new EOSerException(e.getMessage(), e);
+        }
+        if (!pending.isEmpty()) {
+            pending.peek().startPrinting();
+        }
+    }
+
+    /**
+     * Output of a file segmented concurrently. It is buffered until the outputs of the files
+     * before it have been printed, and printed directly after that.
+     */
+    private static final class OrderedOutput extends OutputStream {
+        private ByteArrayOutputStream buffer;
+        private Future<Void> future;
+
+        OrderedOutput(boolean printing) {
+            this.buffer = printing ? null : new ByteArrayOutputStream();
+        }
+
+        synchronized void startPrinting() {
+            byte[] bytes = buffer.toByteArray();
+            buffer = null;
+            System.out.write(bytes, 0, bytes.length);
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            if (buffer != null) {
+                buffer.write(b);
+            } else {
+                System.out.write(b);
+            }
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            if (buffer != null) {
+                buffer.write(b, off, len);
+            } else {
+                System.out.write(b, off, len);
+            }
+        }
+    }
+
+    /**
+     * Memory-map the input file and print sentences as the decoder advances.
+     * Line breaks are dropped as lines are joined in the default mode.
+     */
+    private static void extractMapped(SentenceExtractor extractor, Path inputFile, PrintStream out)
+            throws IOException {
+        StreamingSentenceExtractor streaming = new StreamingSentenceExtractor(extractor, new SentenceHandler() {
+            @Override
+            public void sentence(String sentence, long startOffset, long endOffset) {
+                out.println(sentence);
+            }
+
+            @Override
+            public void remaining(String remaining, long startOffset) {
+                out.println(remaining);
+            }
+        });
+        CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+        CharBuffer chars = CharBuffer.allocate(DECODE_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(inputFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            do {
+                long regionSize = Math.min(MAX_MAPPED_REGION_SIZE, size - position);
+                boolean endOfInput = position + regionSize == size;
+                MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, position, regionSize);
+                CoderResult result;
+                do {
+                    result = decoder.decode(bytes, chars, endOfInput);
+                    if (result.isError()) {
+                        result.throwException();
+                    }
+                    appendWithoutLineBreaks(streaming, chars);
+                } while (result.isOverflow());
+                // the bytes of a character split by the region end are mapped again with the next region
+                position += bytes.position();
+            } while (position < size);
+            while (decoder.flush(chars).isOverflow()) {
+                appendWithoutLineBreaks(streaming, chars);
+            }
+            appendWithoutLineBreaks(streaming, chars);
+        }
+        streaming.finish();
+    }
+
+    private static void appendWithoutLineBreaks(StreamingSentenceExtractor streaming, CharBuffer chars) {
+        chars.flip();
+        char[] array = chars.array();
+        int length = 0;
+        for (int i = chars.position(); i < chars.limit(); i++) {
+            if (array[i] != '\n' && array[i] != '\r') {
+                array[length++] = array[i];
+            }
         }
-        return output;
+        streaming.append(array, 0, length);
+        chars.clear();
     }
 
     private static void printHelp(Options opt) {
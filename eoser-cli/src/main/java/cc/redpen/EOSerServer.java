@@ -0,0 +1,271 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import cc.redpen.config.SymbolTable;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Segmentation server listening on the loopback address, which keeps warmed-up
+ * extractors so that each request does not pay the start up of the JVM.
+ * <p>
+ * The protocol is JSON lines in UTF-8. Each request is a line with a JSON object:
+ * <pre>
+ * {"text": "This is a pen. That is", "lang": "en", "type": ""}
+ * </pre>
+ * where {@code lang} and {@code type} are optional. The server answers each request
+ * with a line:
+ * <pre>
+ * {"sentences": ["This is a pen."], "remaining": " That is"}
+ * </pre>
+ * or {@code {"error": "..."}} for an invalid request. A connection can send any number
+ * of requests.
+ * <p>
+ * Each connection is read by its own thread, so idle connections do not keep the others
+ * waiting, and the number of requests segmented at the same time is bounded. The number
+ * of connections and the length of a request line are bounded too: a connection over the
+ * limit is answered with an error and closed, and a request line over the limit is
+ * answered with an error.
+ */
+public final class EOSerServer implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(EOSerServer.class);
+    private static final int MAX_CONNECTIONS = 128;
+    private static final int MAX_REQUEST_LENGTH = 16 * 1024 * 1024;
+    // extractors of further languages and types are created for each request
+    private static final int MAX_CACHED_EXTRACTORS = 64;
+
+    private final ServerSocket serverSocket;
+    private final String defaultLang;
+    private final ExecutorService executor;
+    // permits to segment requests, one for each thread
+    private final Semaphore segmentations;
+    private final int maxConnections;
+    private final int maxRequestLength;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    // keyed by the language and the type separated by '\0'
+    private final ConcurrentHashMap<String, SentenceExtractor> extractors = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor. The server socket is bound when the server is constructed.
+     *
+     * @param port        port to listen to, or 0 to use an ephemeral port
+     * @param defaultLang language used when a request does not specify it
+     * @param threads     maximum number of requests segmented concurrently
+     * @throws IOException when the port can not be bound
+     */
+    public EOSerServer(int port, String defaultLang, int threads) throws IOException {
+        this(port, defaultLang, threads, MAX_CONNECTIONS, MAX_REQUEST_LENGTH);
+    }
+
+    EOSerServer(int port, String defaultLang, int threads, int maxConnections, int maxRequestLength)
+            throws IOException {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Number of threads should be positive: " + threads);
+        }
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.defaultLang = defaultLang;
+        this.segmentations = new Semaphore(threads);
+        this.maxConnections = maxConnections;
+        this.maxRequestLength = maxRequestLength;
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "eoser-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Get the port the server listens to.
+     *
+     * @return port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accept connections until the server is closed.
+     */
+    public void serve() {
+        // warm up the extractor of the default language
+        getExtractor(defaultLang, "");
+        LOG.info("Listening on " + serverSocket.getLocalSocketAddress()
+                + " with the default lang \"" + defaultLang + "\"");
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                break; // closed
+            } catch (IOException e) {
+                LOG.error("Failed to accept a connection: " + e.getMessage());
+                continue;
+            }
+            if (connections.size() >= maxConnections) {
+                reject(socket);
+                continue;
+            }
+            connections.add(socket);
+            executor.execute(() -> handle(socket));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Socket connection : connections) {
+            connection.close();
+        }
+        executor.shutdownNow();
+    }
+
+    private void reject(Socket socket) {
+        try (Socket s = socket;
+             Writer writer = new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8)) {
+            writer.write(error("Too many connections"));
+            writer.write('\n');
+        } catch (IOException e) {
+            LOG.warn("Connection closed: " + e.getMessage());
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Socket s = socket;
+             BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+             Writer writer = new BufferedWriter(
+                     new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8))) {
+            StringBuilder line = new StringBuilder();
+            while (readLine(reader, line)) {
+                String response;
+                if (line.length() > maxRequestLength) {
+                    response = error("Request is longer than " + maxRequestLength + " characters");
+                } else {
+                    segmentations.acquireUninterruptibly();
+                    try {
+                        response = respond(line.toString());
+                    } finally {
+                        segmentations.release();
+                    }
+                }
+                writer.write(response);
+                writer.write('\n');
+                writer.flush();
+            }
+        } catch (IOException e) {
+            LOG.warn("Connection closed: " + e.getMessage());
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    /**
+     * Read a line into the builder, keeping at most one character more than the maximum
+     * request length so that a longer line is skipped to its end without being stored.
+     *
+     * @return false at the end of the stream
+     */
+    private boolean readLine(BufferedReader reader, StringBuilder line) throws IOException {
+        line.setLength(0);
+        int c = reader.read();
+        if (c < 0) {
+            return false;
+        }
+        while (c >= 0 && c != '\n') {
+            if (line.length() <= maxRequestLength) {
+                line.append((char) c);
+            }
+            c = reader.read();
+        }
+        if (line.length() > 0 && line.charAt(line.length() - 1) == '\r') {
+            line.setLength(line.length() - 1);
+        }
+        return true;
+    }
+
+    String respond(String request) {
+        try {
+            JSONObject json = new JSONObject(request);
+            String text = json.getString("text");
+            SentenceExtractor extractor = getExtractor(json.optString("lang", defaultLang), json.optString("type", ""));
+            JSONArray sentences = new JSONArray();
+            SentenceBoundaries boundaries = new SentenceBoundaries();
+            int lastPosition = extractor.extract(text, boundaries);
+            for (int i = 0; i < boundaries.size(); i++) {
+                sentences.put(text.substring(boundaries.getStartPosition(i), boundaries.getEndPosition(i)));
+            }
+            return new JSONObject()
+                    .put("sentences", sentences)
+                    .put("remaining", text.substring(lastPosition))
+                    .toString();
+        } catch (JSONException e) {
+            return error(e.getMessage());
+        } catch (RuntimeException e) {
+            LOG.error("Failed to segment a request", e);
+            return error(String.valueOf(e.getMessage()));
+        }
+    }
+
+    SentenceExtractor getExtractor(String lang, String type) {
+        String key = lang + '\0' + type;
+        SentenceExtractor extractor = extractors.get(key);
+        if (extractor != null) {
+            return extractor;
+        }
+        if (extractors.size() >= MAX_CACHED_EXTRACTORS) {
+            return new SentenceExtractor(createSymbolTable(lang, type));
+        }
+        return extractors.computeIfAbsent(key, k -> new SentenceExtractor(createSymbolTable(lang, type)));
+    }
+
+    private static String error(String message) {
+        try {
+            return new JSONObject().put("error", message).toString();
+        } catch (JSONException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static SymbolTable createSymbolTable(String lang, String type) {
+        return new SymbolTable(lang, Optional.of(type), new ArrayList<>());
+    }
+}
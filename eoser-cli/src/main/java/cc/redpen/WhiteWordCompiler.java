@@ -0,0 +1,80 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import cc.redpen.util.WhiteWordAutomaton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiles a white word list (one word per line in UTF-8, empty lines are ignored) into
+ * an automaton file, which eoser memory-maps with the --white-words option.
+ * <pre>
+ * java -cp 'lib/*' cc.redpen.WhiteWordCompiler words.txt words.eosw
+ * </pre>
+ */
+public final class WhiteWordCompiler {
+    private static final Logger LOG = LoggerFactory.getLogger(WhiteWordCompiler.class);
+
+    private WhiteWordCompiler() {
+    }
+
+    public static void main(String... args) throws EOSerException {
+        if (args.length != 2) {
+            System.err.println("usage: WhiteWordCompiler <WORD LIST> <AUTOMATON FILE>");
+            System.exit(-1);
+        }
+        compile(Paths.get(args[0]), Paths.get(args[1]));
+    }
+
+    /**
+     * Compile a white word list into an automaton file.
+     *
+     * @param wordList  word list file
+     * @param automaton automaton file to write
+     * @throws EOSerException when the files can not be read or written
+     */
+    public static void compile(Path wordList, Path automaton) throws EOSerException {
+        List<String> words = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(wordList, StandardCharsets.UTF_8)) {
+                if (!line.isEmpty()) {
+                    words.add(line);
+                }
+            }
+        } catch (IOException e) {
+            throw new EOSerException("Failed to read " + wordList, e);
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(automaton))) {
+            new WhiteWordAutomaton(words).write(out);
+        } catch (IOException e) {
+            throw new EOSerException("Failed to write " + automaton, e);
+        }
+        LOG.info("Compiled " + words.size() + " white words into " + automaton);
+    }
+}
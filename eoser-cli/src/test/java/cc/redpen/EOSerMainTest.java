@@ -0,0 +1,271 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+public class EOSerMainTest {
+    private Path workDirectory;
+    private PrintStream stdout;
+
+    @Before
+    public void setUp() throws IOException {
+        workDirectory = Files.createTempDirectory("eoser");
+        stdout = System.out;
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        System.setOut(stdout);
+        try (Stream<Path> paths = Files.walk(workDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private List<String> createInputFiles(int count) throws IOException {
+        Path inputDirectory = Files.createDirectories(workDirectory.resolve("input"));
+        List<String> fileNames = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Path file = inputDirectory.resolve("input" + i + ".txt");
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0; j < 20 + i % 7; j++) {
+                sb.append("File ").append(i).append(" says Mr. Smith came at 10 a.m. ")
+                        .append(j).append(" times.\nReally? ");
+            }
+            Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+            fileNames.add(file.toString());
+        }
+        return fileNames;
+    }
+
+    private byte[] run(List<String> arguments) throws EOSerException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(bytes));
+        try {
+            assertEquals(0, EOSerMain.run(arguments.toArray(new String[arguments.size()])));
+        } finally {
+            System.out.flush();
+            System.setOut(stdout);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<String> arguments(List<String> options, List<String> fileNames) {
+        List<String> arguments = new ArrayList<>(options);
+        arguments.addAll(fileNames);
+        return arguments;
+    }
+
+    @Test
+    public void testSimple() throws Exception {
+        Path file = workDirectory.resolve("simple.txt");
+        Files.write(file, "this is a pen. that is\na paper. and".getBytes(StandardCharsets.UTF_8));
+        List<String> arguments = new ArrayList<>();
+        arguments.add(file.toString());
+        String output = new String(run(arguments));
+        assertEquals(String.format("this is a pen.%n that isa paper.%n and%n"), output);
+        arguments.add(0, "--mmap");
+        assertEquals(output, new String(run(arguments)));
+    }
+
+    @Test
+    public void testMappedOutputIsSameAsReadOutput() throws Exception {
+        Path file = workDirectory.resolve("large.txt");
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; sb.length() < 300 * 1024; i++) {
+            // long runs without terminators and multi-byte characters across the decode buffers
+            for (int j = 0; j < i % 500; j++) {
+                sb.append("caf\u00e9 na\u00efve ");
+            }
+            sb.append(i % 3 == 0 ? "Mr. Smith.\n" : i % 3 == 1 ? "\u3042\u3002 U.S.A. is big?\n" : "end. ");
+        }
+        Files.write(file, sb.toString().getBytes(StandardCharsets.UTF_8));
+        List<String> arguments = new ArrayList<>();
+        arguments.add(file.toString());
+        byte[] expected = run(arguments);
+        arguments.add(0, "--mmap");
+        assertArrayEquals(expected, run(arguments));
+    }
+
+    @Test
+    public void testCompiledWhiteWords() throws Exception {
+        Path file = workDirectory.resolve("simple.txt");
+        Files.write(file, "I met Prof. X. Mr. Y was there.".getBytes(StandardCharsets.UTF_8));
+        Path wordList = workDirectory.resolve("words.txt");
+        Files.write(wordList, "Prof.\n\nMr.\n".getBytes(StandardCharsets.UTF_8));
+        Path automaton = workDirectory.resolve("words.eosw");
+        WhiteWordCompiler.compile(wordList, automaton);
+        List<String> arguments = new ArrayList<>();
+        arguments.add(file.toString());
+        assertEquals(String.format("I met Prof.%n X.%n Mr. Y was there.%n%n"), new String(run(arguments)));
+        arguments.add(0, "--white-words");
+        arguments.add(1, automaton.toString());
+        assertEquals(String.format("I met Prof. X.%n Mr. Y was there.%n%n"), new String(run(arguments)));
+    }
+
+    @Test
+    public void testSymbolTableSnapshot() throws Exception {
+        Path file = workDirectory.resolve("simple.txt");
+        Files.write(file, "this is a pen; that is a paper. and".getBytes(StandardCharsets.UTF_8));
+        Path conf = workDirectory.resolve("symbol-conf.xml");
+        Files.write(conf, ("<symbol-conf lang=\"en\"><symbols>"
+                + "<symbol name=\"FULL_STOP\" value=\";\" invalid-chars=\".\"/>"
+                + "</symbols></symbol-conf>").getBytes(StandardCharsets.UTF_8));
+        Path snapshot = workDirectory.resolve("symbols.eost");
+        List<String> arguments = new ArrayList<>();
+        arguments.add("--symbol-conf");
+        arguments.add(conf.toString());
+        arguments.add(file.toString());
+        String output = new String(run(arguments));
+        assertEquals(String.format("this is a pen;%n that is a paper. and%n"), output);
+
+        List<String> export = new ArrayList<>(arguments.subList(0, 2));
+        export.add("--export-symbol-snapshot");
+        export.add(snapshot.toString());
+        assertEquals(0, run(export).length);
+        List<String> load = new ArrayList<>();
+        load.add("--symbol-snapshot");
+        load.add(snapshot.toString());
+        load.add(file.toString());
+        assertEquals(output, new String(run(load)));
+    }
+
+    @Test
+    public void testParallelOutputToDirectory() throws Exception {
+        List<String> fileNames = createInputFiles(20);
+        Path outputDirectory = Files.createDirectories(workDirectory.resolve("output"));
+        List<String> options = new ArrayList<>();
+        options.add("-t");
+        options.add("3");
+        options.add("-o");
+        options.add(outputDirectory.toString());
+        assertEquals(0, run(arguments(options, fileNames)).length);
+        for (String fileName : fileNames) {
+            List<String> single = new ArrayList<>();
+            single.add(fileName);
+            Path outputFile = outputDirectory.resolve(workDirectory.resolve(fileName).getFileName());
+            assertArrayEquals(run(single), Files.readAllBytes(outputFile));
+        }
+    }
+
+    @Test
+    public void testInvalidNumberOfThreads() throws Exception {
+        assertEquals(-1, EOSerMain.run("--threads", "0"));
+    }
+
+    @Test
+    public void testLang() throws Exception {
+        Path file = workDirectory.resolve("ja.txt");
+        Files.write(file, "\u3053\u308c\u306f\u30da\u30f3\u3002\u3042\u308c\u306f".getBytes(StandardCharsets.UTF_8));
+        List<String> arguments = new ArrayList<>();
+        arguments.add(file.toString());
+        byte[] english = run(arguments);
+        arguments.add(0, "--lang");
+        arguments.add(1, "ja");
+        byte[] japanese = run(arguments);
+        // the ideographic full stop ends a sentence only in Japanese
+        assertEquals(1, new String(english).split(System.lineSeparator()).length);
+        assertEquals(2, new String(japanese).split(System.lineSeparator()).length);
+    }
+
+    @Test
+    public void testConnectWithLang() throws Exception {
+        Path file = workDirectory.resolve("ja.txt");
+        Files.write(file, "\u3053\u308c\u306f\u30da\u30f3\u3002\u3042\u308c\u306f".getBytes(StandardCharsets.UTF_8));
+        try (EOSerServer server = new EOSerServer(0, "en", 2)) {
+            Thread serverThread = new Thread(server::serve);
+            serverThread.start();
+            List<String> options = new ArrayList<>();
+            options.add("--lang");
+            options.add("ja");
+            byte[] expected = run(arguments(options, Collections.singletonList(file.toString())));
+            options.add("--connect");
+            options.add(String.valueOf(server.getPort()));
+            assertArrayEquals(expected, run(arguments(options, Collections.singletonList(file.toString()))));
+        }
+    }
+
+    @Test
+    public void testServerWithLocalExtractorOptions() throws Exception {
+        assertEquals(-1, EOSerMain.run("--server", "0", "--white-words", "white.bin"));
+        assertEquals(-1, EOSerMain.run("--server", "0", "--symbol-conf", "symbol.xml"));
+        assertEquals(-1, EOSerMain.run("--connect", "1", "--symbol-snapshot", "symbol.snapshot"));
+    }
+
+    @Test
+    public void testParallelOutputIsInInputOrder() throws Exception {
+        // more files than the threads segment ahead of the printed one
+        List<String> fileNames = createInputFiles(100);
+        byte[] expected = run(fileNames);
+        for (int threads : new int[]{2, 3, 8, 16}) {
+            List<String> options = new ArrayList<>();
+            options.add("--threads");
+            options.add(String.valueOf(threads));
+            assertArrayEquals("threads: " + threads, expected, run(arguments(options, fileNames)));
+            options.add("--mmap");
+            assertArrayEquals("threads: " + threads, expected, run(arguments(options, fileNames)));
+        }
+    }
+
+    @Test
+    public void testOutputFileIsInputFile() throws Exception {
+        Path file = workDirectory.resolve("in.txt");
+        byte[] content = "this is a pen. that is a paper.".getBytes(StandardCharsets.UTF_8);
+        Files.write(file, content);
+        try {
+            EOSerMain.run("-o", workDirectory.toString(), file.toString());
+            fail();
+        } catch (EOSerException e) {
+            assertArrayEquals(content, Files.readAllBytes(file));
+        }
+    }
+
+    @Test
+    public void testInputFilesWithSameName() throws Exception {
+        Path first = Files.createDirectories(workDirectory.resolve("a")).resolve("x.txt");
+        Path second = Files.createDirectories(workDirectory.resolve("b")).resolve("x.txt");
+        Files.write(first, "this is a pen.".getBytes(StandardCharsets.UTF_8));
+        Files.write(second, "that is a paper.".getBytes(StandardCharsets.UTF_8));
+        Path outputDirectory = Files.createDirectories(workDirectory.resolve("output"));
+        try {
+            EOSerMain.run("-o", outputDirectory.toString(), first.toString(), second.toString());
+            fail();
+        } catch (EOSerException e) {
+            assertFalse(Files.exists(outputDirectory.resolve("x.txt")));
+        }
+    }
+}
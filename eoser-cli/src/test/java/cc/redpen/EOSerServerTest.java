@@ -0,0 +1,190 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class EOSerServerTest {
+    private EOSerServer server;
+    private Thread serverThread;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new EOSerServer(0, "en", 4);
+        serverThread = new Thread(server::serve);
+        serverThread.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.close();
+        serverThread.join(10000);
+    }
+
+    @Test
+    public void testSegment() throws Exception {
+        try (EOSerClient client = new EOSerClient(server.getPort())) {
+            assertEquals(Arrays.asList("This is a pen.", " Mr. Smith is here.", ""),
+                    client.segment("This is a pen. Mr. Smith is here.", null, null));
+            assertEquals(Arrays.asList("This is a pen.", " That is"),
+                    client.segment("This is a pen. That is", null, null));
+            assertEquals(Arrays.asList("これはペンです．", "あれは"),
+                    client.segment("これはペンです．あれは", "ja", "zenkaku2"));
+            assertEquals(Arrays.asList("これはペンです．あれは"),
+                    client.segment("これはペンです．あれは", "ja", null));
+        }
+    }
+
+    @Test
+    public void testInvalidRequest() throws Exception {
+        assertTrue(server.respond("{\"lang\": \"en\"}").contains("\"error\""));
+        assertTrue(server.respond("not json").contains("\"error\""));
+        assertTrue(server.respond("{\"text\": \"a.\"}").contains("\"sentences\":[\"a.\"]"));
+    }
+
+    @Test
+    public void testErrorIsReportedToClient() throws Exception {
+        try (EOSerClient client = new EOSerClient(server.getPort())) {
+            try {
+                client.segment(null, null, null);
+                fail("no error is reported");
+            } catch (EOSerException e) {
+                // text is required
+            }
+            assertEquals(Arrays.asList("It works.", ""), client.segment("It works.", null, null));
+        }
+    }
+
+    @Test
+    public void testConcurrentClients() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                String text = "Client " + i + " says hello. Bye";
+                futures.add(executor.submit(() -> {
+                    try (EOSerClient client = new EOSerClient(server.getPort())) {
+                        List<String> sentences = new ArrayList<>();
+                        for (int j = 0; j < 100; j++) {
+                            sentences = client.segment(text, "en", null);
+                        }
+                        return sentences;
+                    }
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals(Arrays.asList("Client " + i + " says hello.", " Bye"), futures.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testManyRequestsOnOneConnection() throws Exception {
+        try (EOSerClient client = new EOSerClient(server.getPort())) {
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(Arrays.asList("Request " + i + " is here.", " That is"),
+                        client.segment("Request " + i + " is here. That is", i % 2 == 0 ? "en" : null, null));
+            }
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testIdleConnectionsDoNotBlockNewOnes() throws Exception {
+        List<EOSerClient> idleClients = new ArrayList<>();
+        try {
+            // more connections than the threads of the server, each kept open after a request
+            for (int i = 0; i < 8; i++) {
+                EOSerClient client = new EOSerClient(server.getPort());
+                idleClients.add(client);
+                assertEquals(Arrays.asList("Hello.", ""), client.segment("Hello.", null, null));
+            }
+            try (EOSerClient client = new EOSerClient(server.getPort())) {
+                assertEquals(Arrays.asList("Hello.", ""), client.segment("Hello.", null, null));
+            }
+        } finally {
+            for (EOSerClient client : idleClients) {
+                client.close();
+            }
+        }
+    }
+
+    @Test
+    public void testExtractorIsCached() throws Exception {
+        assertSame(server.getExtractor("ja", "zenkaku2"), server.getExtractor("ja", "zenkaku2"));
+        assertNotSame(server.getExtractor("ja", "zenkaku2"), server.getExtractor("ja", ""));
+    }
+
+    @Test(timeout = 10000)
+    public void testTooManyConnections() throws Exception {
+        try (EOSerServer limited = new EOSerServer(0, "en", 1, 2, 1024)) {
+            Thread limitedThread = new Thread(limited::serve);
+            limitedThread.start();
+            try (EOSerClient first = new EOSerClient(limited.getPort());
+                 EOSerClient second = new EOSerClient(limited.getPort());
+                 EOSerClient third = new EOSerClient(limited.getPort())) {
+                assertEquals(Arrays.asList("Hello.", ""), first.segment("Hello.", null, null));
+                assertEquals(Arrays.asList("Hello.", ""), second.segment("Hello.", null, null));
+                try {
+                    third.segment("Hello.", null, null);
+                    fail("the connection over the limit is accepted");
+                } catch (EOSerException e) {
+                    assertEquals("Too many connections", e.getMessage());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTooLongRequest() throws Exception {
+        try (EOSerServer limited = new EOSerServer(0, "en", 1, 2, 100)) {
+            Thread limitedThread = new Thread(limited::serve);
+            limitedThread.start();
+            try (EOSerClient client = new EOSerClient(limited.getPort())) {
+                StringBuilder text = new StringBuilder();
+                while (text.length() < 200) {
+                    text.append("This is a pen. ");
+                }
+                try {
+                    client.segment(text.toString(), null, null);
+                    fail("the request over the limit is segmented");
+                } catch (EOSerException e) {
+                    assertTrue(e.getMessage().startsWith("Request is longer than"));
+                }
+                // the connection can send requests after the long one
+                assertEquals(Arrays.asList("Hello.", ""), client.segment("Hello.", null, null));
+            }
+        }
+    }
+}
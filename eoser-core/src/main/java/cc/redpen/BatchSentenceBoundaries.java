@@ -0,0 +1,136 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import java.util.Arrays;
+
+/**
+ * Sentence boundaries of a batch of texts. The sentences of all the texts are stored in one
+ * {@link SentenceBoundaries}, and the texts in flat int arrays.
+ * <p>
+ * Sentences are numbered through the whole batch in the order of the texts, and the
+ * positions are offsets in each text. The buffer is reused by
+ * {@link SentenceExtractor#extractBatch(java.util.List, BatchSentenceBoundaries)}, so that
+ * no memory is allocated per text once it has grown to the size of the batch.
+ */
+public final class BatchSentenceBoundaries {
+    private final SentenceBoundaries sentences = new SentenceBoundaries();
+    // index of the first sentence of each text, followed by the total number of sentences
+    private int[] firstSentences = new int[17];
+    private int[] remainingPositions = new int[16];
+    private int textCount;
+
+    /**
+     * Get the number of texts.
+     *
+     * @return number of texts
+     */
+    public int getTextCount() {
+        return textCount;
+    }
+
+    /**
+     * Get the number of sentences in all the texts.
+     *
+     * @return number of sentences
+     */
+    public int getSentenceCount() {
+        return sentences.size();
+    }
+
+    /**
+     * Get the number of sentences of a text.
+     *
+     * @param text index of the text
+     * @return number of sentences
+     */
+    public int getSentenceCount(int text) {
+        checkText(text);
+        return firstSentences[text + 1] - firstSentences[text];
+    }
+
+    /**
+     * Get the index of the first sentence of a text.
+     *
+     * @param text index of the text
+     * @return index of the sentence in the batch
+     */
+    public int getFirstSentence(int text) {
+        checkText(text);
+        return firstSentences[text];
+    }
+
+    /**
+     * Get the start position of the remaining text which does not end a sentence.
+     *
+     * @param text index of the text
+     * @return offset in the text
+     */
+    public int getRemainingPosition(int text) {
+        checkText(text);
+        return remainingPositions[text];
+    }
+
+    /**
+     * Get the start position of a sentence.
+     *
+     * @param sentence index of the sentence in the batch
+     * @return offset of the first character of the sentence in its text
+     */
+    public int getStartPosition(int sentence) {
+        return sentences.getStartPosition(sentence);
+    }
+
+    /**
+     * Get the end position of a sentence.
+     *
+     * @param sentence index of the sentence in the batch
+     * @return offset just after the last character of the sentence in its text
+     */
+    public int getEndPosition(int sentence) {
+        return sentences.getEndPosition(sentence);
+    }
+
+    /**
+     * Remove all the texts keeping the allocated buffers.
+     */
+    public void clear() {
+        sentences.clear();
+        textCount = 0;
+    }
+
+    void addSentence(int startPosition, int endPosition) {
+        sentences.accept(startPosition, endPosition);
+    }
+
+    void endText(int remainingPosition) {
+        if (textCount == remainingPositions.length) {
+            remainingPositions = Arrays.copyOf(remainingPositions, textCount * 2);
+            firstSentences = Arrays.copyOf(firstSentences, textCount * 2 + 1);
+        }
+        remainingPositions[textCount] = remainingPosition;
+        textCount++;
+        firstSentences[textCount] = sentences.size();
+    }
+
+    private void checkText(int text) {
+        if (text < 0 || text >= textCount) {
+            throw new IndexOutOfBoundsException("Text: " + text + ", Count: " + textCount);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import cc.redpen.util.EndOfSentenceCursor;
+
+import java.util.Arrays;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join task to extract the sentence end positions of a range of the input.
+ * <p>
+ * A range is split at a guaranteed sentence boundary (see
+ * {@link SentenceExtractor#isHardBoundary(String, int)}) near its middle. The sentences
+ * of the two halves are then the same as the ones of the serial extraction, so the
+ * results are simply concatenated. A text without line breaks, such as the joined lines
+ * of the command line tool, has no such boundary and is extracted serially.
+ */
+final class ParallelSentenceExtraction extends RecursiveTask<int[]> {
+    static final int DEFAULT_PIECE_LENGTH = 64 * 1024;
+    private static final long serialVersionUID = 4617216354280212470L;
+
+    private final SentenceExtractor extractor;
+    private final String line;
+    private final int from;
+    private final int to;
+    private final int pieceLength;
+
+    ParallelSentenceExtraction(SentenceExtractor extractor, String line, int from, int to, int pieceLength) {
+        this.extractor = extractor;
+        this.line = line;
+        this.from = from;
+        this.to = to;
+        this.pieceLength = pieceLength;
+    }
+
+    @Override
+    protected int[] compute() {
+        if (to - from > pieceLength) {
+            int split = findSplitPosition();
+            if (split > 0) {
+                ParallelSentenceExtraction first = new ParallelSentenceExtraction(
+                        extractor, line, from, split, pieceLength);
+                ParallelSentenceExtraction second = new ParallelSentenceExtraction(
+                        extractor, line, split, to, pieceLength);
+                first.fork();
+                int[] secondEnds = second.compute();
+                int[] firstEnds = first.join();
+                int[] ends = Arrays.copyOf(firstEnds, firstEnds.length + secondEnds.length);
+                System.arraycopy(secondEnds, 0, ends, firstEnds.length, secondEnds.length);
+                return ends;
+            }
+        }
+        return extractSerially();
+    }
+
+    private int findSplitPosition() {
+        int middle = from + (to - from) / 2;
+        for (int i = middle; i < to; i++) {
+            if (extractor.isHardBoundary(line, i)) {
+                return i;
+            }
+        }
+        for (int i = middle - 1; i > from; i--) {
+            if (extractor.isHardBoundary(line, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // end positions (exclusive) of the sentences in the range, relative to the whole input
+    private int[] extractSerially() {
+        EndOfSentenceCursor cursor = extractor.cursor(line.substring(from, to));
+        int[] ends = new int[16];
+        int count = 0;
+        int endPosition;
+        while ((endPosition = cursor.next()) >= 0) {
+            if (count == ends.length) {
+                ends = Arrays.copyOf(ends, count * 2);
+            }
+            ends[count++] = from + endPosition + 1;
+        }
+        return Arrays.copyOf(ends, count);
+    }
+}
@@ -0,0 +1,97 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import cc.redpen.util.EndOfSentenceCursor;
+
+/**
+ * Reusable segmentation state created by {@link SentenceExtractor#newSession()}.
+ * <p>
+ * A session owns one matcher, one white position mask and one output buffer, and is
+ * reset to each new input, so that a worker thread keeping a session allocates nothing
+ * per document once the buffers have grown. A session is not thread-safe.
+ */
+public final class SegmentationSession {
+    private final EndOfSentenceCursor cursor;
+    private final SentenceBoundaries boundaries = new SentenceBoundaries();
+    private CharSequence text = "";
+
+    SegmentationSession(EndOfSentenceCursor cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * Reset the session to the beginning of a new input.
+     *
+     * @param text new input
+     * @return this session
+     */
+    public SegmentationSession reset(CharSequence text) {
+        this.text = text;
+        cursor.reset(text);
+        boundaries.clear();
+        return this;
+    }
+
+    /**
+     * Get the current input.
+     *
+     * @return input
+     */
+    public CharSequence getText() {
+        return text;
+    }
+
+    /**
+     * Find the next sentence and move just after it.
+     *
+     * @return offset just after the last character of the sentence, -1 when no more sentence ends
+     */
+    public int next() {
+        int periodPosition = cursor.next();
+        return periodPosition >= 0 ? periodPosition + 1 : -1;
+    }
+
+    /**
+     * Get the current position, which is the start position of the next sentence, or
+     * of the remaining text once all the sentences have been read.
+     *
+     * @return current position
+     */
+    public int getPosition() {
+        return cursor.getPosition();
+    }
+
+    /**
+     * Find all the remaining sentences of the input. The returned buffer is owned by the
+     * session and is overwritten by the next call or reset.
+     *
+     * @return boundaries of the sentences from the current position
+     */
+    public SentenceBoundaries extract() {
+        boundaries.clear();
+        int startPosition = cursor.getPosition();
+        int periodPosition = cursor.next();
+        while (periodPosition >= 0) {
+            boundaries.accept(startPosition, periodPosition + 1);
+            startPosition = periodPosition + 1;
+            periodPosition = cursor.next();
+        }
+        return boundaries;
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import cc.redpen.model.SentenceView;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Growable buffer of sentence boundaries stored in an int array.
+ * <p>
+ * The buffer can be cleared and reused for another input, so that no memory is
+ * allocated per sentence once it has grown to the size of the input.
+ */
+public final class SentenceBoundaries implements SentenceBoundarySink {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // start and end positions of the sentences one after another
+    private int[] positions;
+    private int size;
+
+    /**
+     * Constructor.
+     */
+    public SentenceBoundaries() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity initial number of sentences which can be stored without growing the buffer
+     */
+    public SentenceBoundaries(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative: " + capacity);
+        }
+        this.positions = new int[Math.max(capacity, 1) * 2];
+    }
+
+    @Override
+    public void accept(int startPosition, int endPosition) {
+        if (size * 2 == positions.length) {
+            positions = Arrays.copyOf(positions, positions.length * 2);
+        }
+        positions[size * 2] = startPosition;
+        positions[size * 2 + 1] = endPosition;
+        size++;
+    }
+
+    /**
+     * Get the number of sentences.
+     *
+     * @return number of sentences
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the start position of a sentence.
+     *
+     * @param index index of the sentence
+     * @return offset of the first character of the sentence
+     */
+    public int getStartPosition(int index) {
+        checkIndex(index);
+        return positions[index * 2];
+    }
+
+    /**
+     * Get the end position of a sentence.
+     *
+     * @param index index of the sentence
+     * @return offset just after the last character of the sentence
+     */
+    public int getEndPosition(int index) {
+        checkIndex(index);
+        return positions[index * 2 + 1];
+    }
+
+    /**
+     * Get the sentences as views of the source text.
+     * <p>
+     * The returned list keeps a copy of the offsets only, and each view is created when
+     * it is read from the list. The list is not affected by later changes of this buffer.
+     *
+     * @param source text which the boundaries were extracted from
+     * @return unmodifiable list of sentences
+     */
+    public List<SentenceView> toViews(CharSequence source) {
+        return new SentenceViewList(source, Arrays.copyOf(positions, size * 2));
+    }
+
+    /**
+     * Remove all the sentences keeping the allocated buffer.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static final class SentenceViewList extends AbstractList<SentenceView> implements RandomAccess {
+        private final CharSequence source;
+        private final int[] positions;
+
+        private SentenceViewList(CharSequence source, int[] positions) {
+            this.source = source;
+            this.positions = positions;
+        }
+
+        @Override
+        public SentenceView get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            return new SentenceView(source, positions[index * 2], positions[index * 2 + 1]);
+        }
+
+        @Override
+        public int size() {
+            return positions.length / 2;
+        }
+    }
+}
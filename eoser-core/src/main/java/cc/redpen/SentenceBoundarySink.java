@@ -0,0 +1,33 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+/**
+ * Receives the sentence boundaries found by {@link SentenceExtractor#extract(CharSequence, SentenceBoundarySink)}
+ * as primitive offsets.
+ */
+@FunctionalInterface
+public interface SentenceBoundarySink {
+    /**
+     * Called for each sentence in the order of the input.
+     *
+     * @param startPosition offset of the first character of the sentence
+     * @param endPosition   offset just after the last character of the sentence
+     */
+    void accept(int startPosition, int endPosition);
+}
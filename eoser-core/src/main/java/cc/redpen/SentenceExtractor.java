@@ -18,18 +18,31 @@
 package cc.redpen;
 
 import cc.redpen.config.SymbolTable;
+import cc.redpen.config.SymbolTableSnapshot;
+import cc.redpen.util.BoundaryDisambiguator;
+import cc.redpen.util.CharTableTerminatorPattern;
+import cc.redpen.util.EndOfSentenceCursor;
 import cc.redpen.util.EndOfSentenceDetector;
+import cc.redpen.util.FlightRecorderEvents;
 import cc.redpen.util.Pair;
+import cc.redpen.util.RegexTerminatorPattern;
+import cc.redpen.util.SegmentationListener;
+import cc.redpen.util.StringUtils;
+import cc.redpen.util.TerminatorPattern;
+import cc.redpen.util.Utf8CharSequence;
+import cc.redpen.util.WhiteWordAutomaton;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
 
-import static cc.redpen.config.SymbolType.*;
-
 /**
  * Utility Class to extract a Sentence list from given String.
  */
@@ -39,13 +52,13 @@ public final class SentenceExtractor {
     private Pattern fullStopPattern;
     private char[] fullStopList;
     private char[] rightQuotationList;
-    // TODO make white words configurable.
     private static final List<String> WHITE_WORDS = generateUmList("Mr.",
             "Mrs.", "Dr.", "genn.ai", "Co., Ltd.", "Miss.", "a.m.",
             "U.S.A.", "Jan.", "Feb.", "Mar.", "Apr.",
             "May.", "Jun.", "Jul.", "Aug.", "Sep.", "Oct.",
             "Nov.", "Dec.", "Feb.", "B.C", "A.D.");
     private EndOfSentenceDetector endOfSentenceDetector;
+    private SegmentationListener listener = SegmentationListener.NONE;
     // reference to the symbol table used to create us
     private SymbolTable symbolTable = null;
 
@@ -56,36 +69,178 @@ public final class SentenceExtractor {
      * @param symbolTable symbolTable
      */
     public SentenceExtractor(SymbolTable symbolTable) {
-        this(extractPeriods(symbolTable), extractRightQuotations(symbolTable));
-        this.symbolTable = symbolTable;
+        this(builder(symbolTable));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param symbolTable symbolTable
+     * @param whiteWords  words containing periods which do not end sentences
+     */
+    public SentenceExtractor(SymbolTable symbolTable, List<String> whiteWords) {
+        this(builder(symbolTable).whiteWords(whiteWords));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param symbolTable symbolTable
+     * @param engine      engine to find end of sentence characters
+     */
+    public SentenceExtractor(SymbolTable symbolTable, TerminatorEngine engine) {
+        this(builder(symbolTable).engine(engine));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param symbolTable symbolTable
+     * @param whiteWords  words containing periods which do not end sentences
+     * @param engine      engine to find end of sentence characters
+     */
+    public SentenceExtractor(SymbolTable symbolTable, List<String> whiteWords, TerminatorEngine engine) {
+        this(builder(symbolTable).whiteWords(whiteWords).engine(engine));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param symbolTable symbolTable
+     * @param whiteWords  automaton of the words containing periods which do not end sentences,
+     *                    such as one loaded with {@link WhiteWordAutomaton#load(java.nio.file.Path)}
+     * @param engine      engine to find end of sentence characters
+     */
+    public SentenceExtractor(SymbolTable symbolTable, WhiteWordAutomaton whiteWords, TerminatorEngine engine) {
+        this(builder(symbolTable).whiteWords(whiteWords).engine(engine));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param snapshot symbol table snapshot with its terminator characters
+     * @param engine   engine to find end of sentence characters
+     */
+    public SentenceExtractor(SymbolTableSnapshot snapshot, TerminatorEngine engine) {
+        this(builder(snapshot).engine(engine));
     }
 
     /**
      * Constructor.
      */
     public SentenceExtractor(char[] fullStopList, char[] rightQuotationList) {
-        this.fullStopList = fullStopList;
-        this.rightQuotationList = rightQuotationList;
-        this.fullStopPattern = this.constructEndSentencePattern();
-        this.endOfSentenceDetector = new EndOfSentenceDetector(
-                this.fullStopPattern, this.WHITE_WORDS);
+        this(builder(fullStopList, rightQuotationList));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param fullStopList       end of sentence characters
+     * @param rightQuotationList right quotation characters
+     * @param whiteWords         words containing periods which do not end sentences
+     */
+    public SentenceExtractor(char[] fullStopList, char[] rightQuotationList, List<String> whiteWords) {
+        this(builder(fullStopList, rightQuotationList).whiteWords(whiteWords));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param fullStopList       end of sentence characters
+     * @param rightQuotationList right quotation characters
+     * @param whiteWords         words containing periods which do not end sentences
+     * @param engine             engine to find end of sentence characters
+     */
+    public SentenceExtractor(char[] fullStopList, char[] rightQuotationList, List<String> whiteWords,
+                             TerminatorEngine engine) {
+        this(builder(fullStopList, rightQuotationList).whiteWords(whiteWords).engine(engine));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param fullStopList       end of sentence characters
+     * @param rightQuotationList right quotation characters
+     * @param whiteWords         automaton of the words containing periods which do not end sentences
+     * @param engine             engine to find end of sentence characters
+     */
+    public SentenceExtractor(char[] fullStopList, char[] rightQuotationList, WhiteWordAutomaton whiteWords,
+                             TerminatorEngine engine) {
+        this(builder(fullStopList, rightQuotationList).whiteWords(whiteWords).engine(engine));
+    }
+
+    private SentenceExtractor(Builder builder) {
+        Object event = FlightRecorderEvents.beginExtractorConstruction();
+        this.symbolTable = builder.symbolTable;
+        this.fullStopList = builder.fullStopList;
+        this.rightQuotationList = builder.rightQuotationList;
+        this.listener = builder.listener;
+        WhiteWordAutomaton whiteWords = builder.whiteWords != null
+                ? builder.whiteWords : new WhiteWordAutomaton(WHITE_WORDS);
+        this.endOfSentenceDetector = new EndOfSentenceDetector(constructTerminatorPattern(builder.engine),
+                whiteWords, builder.disambiguator, builder.listener);
+        FlightRecorderEvents.endExtractorConstruction(event, getLang(), builder.engine.name());
+    }
+
+    /**
+     * Create a builder of an extractor using the terminator characters of the symbol table.
+     *
+     * @param symbolTable symbolTable
+     * @return builder
+     */
+    public static Builder builder(SymbolTable symbolTable) {
+        return new Builder(symbolTable, extractPeriods(symbolTable), extractRightQuotations(symbolTable));
+    }
+
+    /**
+     * Create a builder of an extractor using the terminator characters of the snapshot.
+     *
+     * @param snapshot symbol table snapshot with its terminator characters
+     * @return builder
+     */
+    public static Builder builder(SymbolTableSnapshot snapshot) {
+        return new Builder(snapshot.getSymbolTable(), snapshot.getFullStops(), snapshot.getRightQuotations());
+    }
+
+    /**
+     * Create a builder of an extractor using the given terminator characters.
+     *
+     * @param fullStopList       end of sentence characters
+     * @param rightQuotationList right quotation characters
+     * @return builder
+     */
+    public static Builder builder(char[] fullStopList, char[] rightQuotationList) {
+        return new Builder(null, fullStopList, rightQuotationList);
+    }
+
+    private TerminatorPattern constructTerminatorPattern(TerminatorEngine engine) {
+        switch (engine) {
+            case CHAR_TABLE:
+                return new CharTableTerminatorPattern(this.fullStopList, this.rightQuotationList);
+            case REGEX:
+            default:
+                this.fullStopPattern = this.constructEndSentencePattern();
+                return new RegexTerminatorPattern(this.fullStopPattern, this.fullStopList);
+        }
+    }
+
+    /**
+     * Get the default white words, which are used when no white words are specified.
+     *
+     * @return unmodifiable list of the default white words
+     */
+    public static List<String> getDefaultWhiteWords() {
+        return Collections.unmodifiableList(WHITE_WORDS);
     }
 
     private static char[] extractPeriods(SymbolTable symbolTable) {
-        char[] periods = new char[]{
-                symbolTable.getValueOrFallbackToDefault(FULL_STOP),
-                symbolTable.getValueOrFallbackToDefault(QUESTION_MARK),
-                symbolTable.getValueOrFallbackToDefault(EXCLAMATION_MARK)
-        };
+        char[] periods = symbolTable.getFullStops();
         LOG.info("\"" + Arrays.toString(periods) + "\" are added as a end of sentence characters");
         return periods;
     }
 
     private static char[] extractRightQuotations(SymbolTable symbolTable) {
-        char[] rightQuotations = new char[]{
-                symbolTable.getValueOrFallbackToDefault(RIGHT_SINGLE_QUOTATION_MARK),
-                symbolTable.getValueOrFallbackToDefault(RIGHT_DOUBLE_QUOTATION_MARK)
-        };
+        char[] rightQuotations = symbolTable.getRightQuotations();
         LOG.info("\"" + Arrays.toString(rightQuotations) + "\" are added as a right quotation characters");
         return rightQuotations;
     }
@@ -130,22 +285,282 @@ public final class SentenceExtractor {
 
     /**
      * Get Sentence lists.
+     * <p>
+     * The input is scanned once from the beginning to the end.
      *
      * @param line              Input line which can contain more than one sentences
      * @param sentencePositions List of extracted sentences
      * @return remaining line
      */
     public int extract(String line, List<Pair<Integer, Integer>> sentencePositions) {
+        return extract(line, (startPosition, endPosition) ->
+                sentencePositions.add(new Pair<>(startPosition, endPosition)));
+    }
+
+    /**
+     * Get sentence boundaries as primitive offsets.
+     * <p>
+     * No memory is allocated per sentence by the extraction itself, so this can be
+     * used with a reused {@link SentenceBoundaries} to avoid boxing the positions.
+     *
+     * @param line Input line which can contain more than one sentences
+     * @param sink receiver of the extracted sentences
+     * @return remaining line
+     */
+    public int extract(CharSequence line, SentenceBoundarySink sink) {
+        Object event = FlightRecorderEvents.beginExtract();
+        long startTime = startTime();
+        EndOfSentenceCursor cursor = endOfSentenceDetector.cursor(line);
         int startPosition = 0;
-        int periodPosition = endOfSentenceDetector.getSentenceEndPosition(line);
+        int sentences = 0;
+        int periodPosition = cursor.next();
         while (periodPosition >= 0) {
-            sentencePositions.add(new Pair<>(startPosition, periodPosition + 1));
+            sink.accept(startPosition, periodPosition + 1);
+            sentences++;
             startPosition = periodPosition + 1;
-            periodPosition = endOfSentenceDetector.getSentenceEndPosition(line, startPosition);
+            periodPosition = cursor.next();
+        }
+        reportExtracted(line.length(), sentences, startTime);
+        FlightRecorderEvents.endExtract(event, getLang(), line.length(), sentences);
+        return startPosition;
+    }
+
+    private String getLang() {
+        return symbolTable != null ? symbolTable.getLang() : "";
+    }
+
+    private long startTime() {
+        return listener != SegmentationListener.NONE ? System.nanoTime() : 0L;
+    }
+
+    private void reportExtracted(int characters, int sentences, long startTime) {
+        if (listener != SegmentationListener.NONE) {
+            listener.onExtracted(characters, sentences, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Get sentence boundaries of UTF-8 encoded text as byte offsets, without decoding the
+     * text into a String. The offsets are the same as those of {@link #extract(CharSequence,
+     * SentenceBoundarySink)} on the decoded text, converted to bytes.
+     * <p>
+     * Nothing is allocated in proportion to the text, but each character is decoded when it
+     * is read, which takes more time than the bulk decoder of the JDK. Decoding first is
+     * faster when the allocation does not matter.
+     *
+     * @param text UTF-8 encoded input
+     * @param sink receiver of the byte offsets of the extracted sentences
+     * @return byte offset of the remaining line
+     * @throws IllegalArgumentException when the text is not valid UTF-8
+     */
+    public int extractUtf8(byte[] text, SentenceBoundarySink sink) {
+        return extractUtf8(ByteBuffer.wrap(text), sink);
+    }
+
+    /**
+     * Get sentence boundaries of UTF-8 encoded text as byte offsets, without decoding the
+     * text into a String. The bytes from the position to the limit of the buffer are used,
+     * the offsets are relative to the position, and the position is not changed.
+     *
+     * @param text UTF-8 encoded input, on heap or direct
+     * @param sink receiver of the byte offsets of the extracted sentences
+     * @return byte offset of the remaining line
+     * @throws IllegalArgumentException when the text is not valid UTF-8
+     */
+    public int extractUtf8(ByteBuffer text, SentenceBoundarySink sink) {
+        Utf8CharSequence line = new Utf8CharSequence(text);
+        int remaining = extract(line, (startPosition, endPosition) ->
+                sink.accept(line.byteOffset(startPosition), line.byteOffset(endPosition)));
+        return line.byteOffset(remaining);
+    }
+
+    /**
+     * Create a session which can be reset to each new input and reused.
+     *
+     * @return new session
+     */
+    public SegmentationSession newSession() {
+        return new SegmentationSession(endOfSentenceDetector.cursor(""));
+    }
+
+    /**
+     * Get the sentence boundaries of many texts at once.
+     *
+     * @param texts input texts
+     * @return boundaries of the sentences of all the texts
+     */
+    public BatchSentenceBoundaries extractBatch(List<? extends CharSequence> texts) {
+        BatchSentenceBoundaries boundaries = new BatchSentenceBoundaries();
+        extractBatch(texts, boundaries);
+        return boundaries;
+    }
+
+    /**
+     * Get the sentence boundaries of many texts at once.
+     *
+     * @param texts input texts
+     * @return boundaries of the sentences of all the texts
+     */
+    public BatchSentenceBoundaries extractBatch(CharSequence[] texts) {
+        return extractBatch(Arrays.asList(texts));
+    }
+
+    /**
+     * Get the sentence boundaries of many texts at once, replacing the contents of the
+     * given boundaries. One session is reset for each text, so the matcher and the white
+     * positions are allocated once for the whole batch.
+     *
+     * @param texts      input texts
+     * @param boundaries receiver of the boundaries of the sentences of all the texts
+     */
+    public void extractBatch(List<? extends CharSequence> texts, BatchSentenceBoundaries boundaries) {
+        boundaries.clear();
+        SegmentationSession session = newSession();
+        for (CharSequence text : texts) {
+            long startTime = startTime();
+            session.reset(text);
+            int startPosition = 0;
+            int sentences = 0;
+            int endPosition = session.next();
+            while (endPosition >= 0) {
+                boundaries.addSentence(startPosition, endPosition);
+                sentences++;
+                startPosition = endPosition;
+                endPosition = session.next();
+            }
+            boundaries.endText(startPosition);
+            reportExtracted(text.length(), sentences, startTime);
+        }
+    }
+
+    /**
+     * Get Sentence lists, segmenting the pieces of the input between guaranteed sentence
+     * boundaries in parallel on the common fork/join pool. The result is the same as
+     * {@link #extract(String, List)}.
+     *
+     * @param line              Input line which can contain more than one sentences
+     * @param sentencePositions List of extracted sentences
+     * @return remaining line
+     */
+    public int extractInParallel(String line, List<Pair<Integer, Integer>> sentencePositions) {
+        return extractInParallel(line, sentencePositions, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Get Sentence lists, segmenting the pieces of the input between guaranteed sentence
+     * boundaries in parallel on the given fork/join pool. The result is the same as
+     * {@link #extract(String, List)}.
+     *
+     * @param line              Input line which can contain more than one sentences
+     * @param sentencePositions List of extracted sentences
+     * @param pool              pool to run the segmentation
+     * @return remaining line
+     */
+    public int extractInParallel(String line, List<Pair<Integer, Integer>> sentencePositions, ForkJoinPool pool) {
+        return extractInParallel(line, sentencePositions, pool, ParallelSentenceExtraction.DEFAULT_PIECE_LENGTH);
+    }
+
+    int extractInParallel(String line, List<Pair<Integer, Integer>> sentencePositions,
+                          ForkJoinPool pool, int pieceLength) {
+        long startTime = startTime();
+        int[] endPositions = pool.invoke(new ParallelSentenceExtraction(this, line, 0, line.length(), pieceLength));
+        int startPosition = 0;
+        for (int endPosition : endPositions) {
+            sentencePositions.add(new Pair<>(startPosition, endPosition));
+            startPosition = endPosition;
         }
+        reportExtracted(line.length(), endPositions.length, startTime);
         return startPosition;
     }
 
+    /**
+     * Detect whether the serial extraction always ends a sentence just before the specified
+     * position, whatever the text before the previous line break and after the position is.
+     * <p>
+     * This is the case for an end of sentence character followed by a line break, which is
+     * not a part of a white word nor changed by the disambiguator. The character should be
+     * Basic Latin, or the next end of sentence character should not be Basic Latin so that
+     * the successive periods are not joined. With a disambiguator, no other end of sentence
+     * character should be within its lookahead on either side, since the pieces split at the
+     * position are segmented without the characters of each other.
+     *
+     * @param line     input
+     * @param position position of the line break
+     * @return true when a sentence always ends just before the position
+     */
+    boolean isHardBoundary(String line, int position) {
+        if (position < 1 || position >= line.length() || line.charAt(position) != '\n'
+                || contains(fullStopList, '\n') || contains(rightQuotationList, '\n')) {
+            return false;
+        }
+        char endCharacter = line.charAt(position - 1);
+        if (!contains(fullStopList, endCharacter) || contains(rightQuotationList, endCharacter)
+                || endOfSentenceDetector.isInWhiteWord(line, position - 1)
+                || !endOfSentenceDetector.isKeptByDisambiguator(line, position - 1)) {
+            return false;
+        }
+        int lookahead = endOfSentenceDetector.getDisambiguationLookahead();
+        if (lookahead > 0 && (containsFullStop(line, position - 1 - lookahead, position - 1)
+                || containsFullStop(line, position + 1, position + 1 + lookahead))) {
+            return false;
+        }
+        if (StringUtils.isBasicLatin(endCharacter)) {
+            return true;
+        }
+        for (int i = position + 1; i < line.length(); i++) {
+            if (contains(fullStopList, line.charAt(i))) {
+                return !StringUtils.isBasicLatin(line.charAt(i));
+            }
+        }
+        return true;
+    }
+
+    private boolean containsFullStop(String line, int from, int to) {
+        for (int i = Math.max(0, from); i < Math.min(line.length(), to); i++) {
+            if (contains(fullStopList, line.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(char[] characters, char c) {
+        for (char character : characters) {
+            if (character == c) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    EndOfSentenceCursor cursor(CharSequence text) {
+        return endOfSentenceDetector.cursor(text);
+    }
+
+    EndOfSentenceCursor cursor(CharSequence text, int startPosition) {
+        return endOfSentenceDetector.cursor(text, startPosition);
+    }
+
+    EndOfSentenceCursor cursor(CharSequence text, int startPosition, BitSet whitePositions) {
+        return endOfSentenceDetector.cursor(text, startPosition, whitePositions);
+    }
+
+    void findWhitePositions(CharSequence text, int from, BitSet whitePositions) {
+        endOfSentenceDetector.findWhitePositions(text, from, whitePositions);
+    }
+
+    int getMaxWhiteWordLength() {
+        return endOfSentenceDetector.getMaxWhiteWordLength();
+    }
+
+    boolean hasOverlappingWhiteWords() {
+        return endOfSentenceDetector.hasOverlappingWhiteWords();
+    }
+
+    int getDisambiguationLookahead() {
+        return endOfSentenceDetector.getDisambiguationLookahead();
+    }
+
     /**
      * Given string, return sentence end position.
      *
@@ -188,4 +603,93 @@ public final class SentenceExtractor {
         generateSimplePattern(this.fullStopList, patternString);
         return Pattern.compile(patternString.toString());
     }
+
+    /**
+     * Builder of {@link SentenceExtractor}, for the options which can be combined freely.
+     * <p>
+     * Options which are not set keep the defaults of the simplest constructors: the default
+     * white words, the regex engine, no disambiguator and no listener.
+     */
+    public static final class Builder {
+        private final SymbolTable symbolTable;
+        private final char[] fullStopList;
+        private final char[] rightQuotationList;
+        private WhiteWordAutomaton whiteWords = null;
+        private TerminatorEngine engine = TerminatorEngine.REGEX;
+        private BoundaryDisambiguator disambiguator = null;
+        private SegmentationListener listener = SegmentationListener.NONE;
+
+        private Builder(SymbolTable symbolTable, char[] fullStopList, char[] rightQuotationList) {
+            this.symbolTable = symbolTable;
+            this.fullStopList = fullStopList;
+            this.rightQuotationList = rightQuotationList;
+        }
+
+        /**
+         * Set the white words.
+         *
+         * @param whiteWords words containing periods which do not end sentences
+         * @return this builder
+         */
+        public Builder whiteWords(List<String> whiteWords) {
+            return whiteWords(new WhiteWordAutomaton(whiteWords));
+        }
+
+        /**
+         * Set the white words.
+         *
+         * @param whiteWords automaton of the words containing periods which do not end sentences,
+         *                   such as one loaded with {@link WhiteWordAutomaton#load(java.nio.file.Path)}
+         * @return this builder
+         */
+        public Builder whiteWords(WhiteWordAutomaton whiteWords) {
+            this.whiteWords = whiteWords;
+            return this;
+        }
+
+        /**
+         * Set the engine.
+         *
+         * @param engine engine to find end of sentence characters
+         * @return this builder
+         */
+        public Builder engine(TerminatorEngine engine) {
+            this.engine = engine;
+            return this;
+        }
+
+        /**
+         * Set the disambiguator.
+         *
+         * @param disambiguator disambiguator of the sentence ends, such as
+         *                      {@link cc.redpen.util.JapaneseBoundaryDisambiguator}, or null to keep
+         *                      all of them
+         * @return this builder
+         */
+        public Builder disambiguator(BoundaryDisambiguator disambiguator) {
+            this.disambiguator = disambiguator;
+            return this;
+        }
+
+        /**
+         * Set the listener.
+         *
+         * @param listener receiver of the counters of the segmentation, such as
+         *                 {@link cc.redpen.util.LongAdderSegmentationListener}
+         * @return this builder
+         */
+        public Builder listener(SegmentationListener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        /**
+         * Create the extractor.
+         *
+         * @return extractor
+         */
+        public SentenceExtractor build() {
+            return new SentenceExtractor(this);
+        }
+    }
 }
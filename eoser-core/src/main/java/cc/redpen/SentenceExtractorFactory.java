@@ -0,0 +1,193 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import cc.redpen.config.SymbolTable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thread-safe factory which shares a {@link SentenceExtractor} among equal configurations.
+ * <p>
+ * Extractors are cached by the {@link SymbolTable} and the {@link TerminatorEngine} in a
+ * bounded cache. The least recently used extractor is evicted when the cache is full.
+ * The symbol table is copied for the key, so that a table modified after the call does
+ * not affect the cache.
+ */
+public final class SentenceExtractorFactory {
+    /**
+     * Default maximum number of extractors kept in the cache.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 64;
+
+    private final int maximumSize;
+    private final Map<Key, SentenceExtractor> extractors;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Constructor.
+     */
+    public SentenceExtractorFactory() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maximumSize maximum number of extractors kept in the cache
+     */
+    public SentenceExtractorFactory(int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.extractors = new LinkedHashMap<Key, SentenceExtractor>(16, 0.75f, true) {
+            private static final long serialVersionUID = -2375130236785640931L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, SentenceExtractor> eldest) {
+                if (size() > SentenceExtractorFactory.this.maximumSize) {
+                    evictionCount++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get an extractor with the default terminator engine.
+     *
+     * @param symbolTable symbol table
+     * @return shared extractor
+     */
+    public SentenceExtractor get(SymbolTable symbolTable) {
+        return get(symbolTable, TerminatorEngine.REGEX);
+    }
+
+    /**
+     * Get an extractor.
+     *
+     * @param symbolTable symbol table
+     * @param engine      engine to find end of sentence characters
+     * @return shared extractor
+     */
+    public SentenceExtractor get(SymbolTable symbolTable, TerminatorEngine engine) {
+        Key key = new Key(symbolTable, engine);
+        synchronized (extractors) {
+            SentenceExtractor extractor = extractors.get(key);
+            if (extractor != null) {
+                hitCount++;
+                return extractor;
+            }
+            missCount++;
+        }
+        // constructed outside the lock not to block the other configurations
+        Key copiedKey = new Key(new SymbolTable(symbolTable), engine);
+        SentenceExtractor created = new SentenceExtractor(copiedKey.symbolTable, engine);
+        synchronized (extractors) {
+            SentenceExtractor extractor = extractors.get(copiedKey);
+            if (extractor != null) {
+                return extractor;
+            }
+            extractors.put(copiedKey, created);
+            return created;
+        }
+    }
+
+    /**
+     * Get the number of cached extractors.
+     *
+     * @return number of extractors
+     */
+    public int size() {
+        synchronized (extractors) {
+            return extractors.size();
+        }
+    }
+
+    /**
+     * Get the number of calls which returned a cached extractor.
+     *
+     * @return hit count
+     */
+    public long getHitCount() {
+        synchronized (extractors) {
+            return hitCount;
+        }
+    }
+
+    /**
+     * Get the number of calls which did not find a cached extractor.
+     *
+     * @return miss count
+     */
+    public long getMissCount() {
+        synchronized (extractors) {
+            return missCount;
+        }
+    }
+
+    /**
+     * Get the number of extractors evicted from the cache.
+     *
+     * @return eviction count
+     */
+    public long getEvictionCount() {
+        synchronized (extractors) {
+            return evictionCount;
+        }
+    }
+
+    /**
+     * Remove all the cached extractors. The statistics are kept.
+     */
+    public void clear() {
+        synchronized (extractors) {
+            extractors.clear();
+        }
+    }
+
+    private static final class Key {
+        private final SymbolTable symbolTable;
+        private final TerminatorEngine engine;
+        private final int hashCode;
+
+        private Key(SymbolTable symbolTable, TerminatorEngine engine) {
+            this.symbolTable = symbolTable;
+            this.engine = engine;
+            this.hashCode = 31 * symbolTable.hashCode() + engine.ordinal();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return engine == key.engine && symbolTable.equals(key.symbolTable);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
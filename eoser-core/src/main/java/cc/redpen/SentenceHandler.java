@@ -0,0 +1,42 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+/**
+ * Receives the sentences found by {@link StreamingSentenceExtractor}.
+ */
+public interface SentenceHandler {
+    /**
+     * Called for each sentence in the order of the input.
+     *
+     * @param sentence    content of the sentence
+     * @param startOffset offset of the first character of the sentence in the whole input
+     * @param endOffset   offset just after the last character of the sentence in the whole input
+     */
+    void sentence(String sentence, long startOffset, long endOffset);
+
+    /**
+     * Called once at the end of the input with the text which is not terminated
+     * with an end of sentence character. The text can be empty.
+     *
+     * @param remaining   remaining text
+     * @param startOffset offset of the remaining text in the whole input
+     */
+    default void remaining(String remaining, long startOffset) {
+    }
+}
@@ -0,0 +1,310 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import cc.redpen.util.EndOfSentenceCursor;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Extract sentences from a stream read in fixed-size chunks.
+ * <p>
+ * The text which is not decided to be a complete sentence yet is carried over to the
+ * next chunk, so the memory usage is bounded by the longest sentence rather than the
+ * size of the input. Each scan resumes from the last position whose sentence ends
+ * cannot change, and the text after it is scanned again only after it has grown by a
+ * quarter, so a long text without sentence ends is scanned in linear time. The sentences
+ * and their offsets are the same as the ones
+ * {@link SentenceExtractor#extract(String, java.util.List)} returns for the whole input.
+ * <p>
+ * An instance handles one stream and is not thread safe.
+ */
+public final class StreamingSentenceExtractor {
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+    private static final int MIN_BUFFER_SIZE = 16;
+    // the buffer is scanned again when it has grown by 1 / RESCAN_FACTOR of the scanned window
+    private static final int RESCAN_FACTOR = 4;
+
+    private final SentenceExtractor extractor;
+    private final SentenceHandler handler;
+    private final int chunkSize;
+    // number of characters needed after a sentence end before the previous sentences are decided
+    private final int lookahead;
+    // false when the white words found after the resume position depend on the whole buffer
+    private final boolean windowed;
+    // positions covered by white words in the buffer, kept across the scans when windowed
+    private BitSet whitePositions = new BitSet();
+    // length of the buffer when the white positions were found
+    private int whiteLength = 0;
+    private final StringBuilder buffer = new StringBuilder();
+    // offset of the first character in the buffer in the whole input
+    private long bufferOffset = 0;
+    private int[] endPositions = new int[16];
+    // number of sentence ends found in the buffer
+    private int endCount = 0;
+    // position from which the next scan resumes and the number of sentence ends before it
+    private int resumePosition = 0;
+    private int resumeCount = 0;
+    // length of the buffer after the last scan
+    private int scannedLength = 0;
+    private long scannedCharacters = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param extractor sentence extractor
+     * @param handler   handler to receive the sentences
+     */
+    public StreamingSentenceExtractor(SentenceExtractor extractor, SentenceHandler handler) {
+        this(extractor, handler, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param extractor sentence extractor
+     * @param handler   handler to receive the sentences
+     * @param chunkSize number of characters (or bytes for channels) read at once
+     */
+    public StreamingSentenceExtractor(SentenceExtractor extractor, SentenceHandler handler, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunk size should be positive, specified: " + chunkSize);
+        }
+        this.extractor = extractor;
+        this.handler = handler;
+        this.chunkSize = chunkSize;
+        this.lookahead = extractor.getMaxWhiteWordLength() + 2 + extractor.getDisambiguationLookahead();
+        this.windowed = !extractor.hasOverlappingWhiteWords();
+    }
+
+    /**
+     * Read all the characters from the reader and extract sentences.
+     * The reader is not closed.
+     *
+     * @param reader input
+     * @return offset of the remaining text which is not terminated
+     * @throws IOException when failed to read the input
+     */
+    public long read(Reader reader) throws IOException {
+        char[] chunk = new char[chunkSize];
+        int length;
+        while ((length = reader.read(chunk)) >= 0) {
+            append(chunk, 0, length);
+        }
+        return finish();
+    }
+
+    /**
+     * Read all the bytes from the channel, decode them and extract sentences.
+     * The channel is not closed. Offsets are given in characters.
+     *
+     * @param channel input
+     * @param charset charset of the input
+     * @return offset of the remaining text which is not terminated
+     * @throws IOException when failed to read or decode the input
+     */
+    public long read(ReadableByteChannel channel, Charset charset) throws IOException {
+        CharsetDecoder decoder = charset.newDecoder();
+        // large enough to hold a whole multi-byte character or a surrogate pair
+        ByteBuffer bytes = ByteBuffer.allocate(Math.max(chunkSize, MIN_BUFFER_SIZE));
+        CharBuffer chars = CharBuffer.allocate(Math.max(chunkSize, MIN_BUFFER_SIZE));
+        boolean endOfInput = false;
+        while (!endOfInput) {
+            endOfInput = channel.read(bytes) < 0;
+            bytes.flip();
+            decode(decoder, bytes, chars, endOfInput);
+            bytes.compact();
+        }
+        while (decoder.flush(chars) == CoderResult.OVERFLOW) {
+            flush(chars);
+        }
+        flush(chars);
+        return finish();
+    }
+
+    /**
+     * Decode the bytes and append the decoded characters.
+     *
+     * @param decoder    decoder
+     * @param bytes      bytes to decode, the remaining bytes of an incomplete character are left
+     * @param chars      buffer for the decoded characters
+     * @param endOfInput true when there are no more bytes after the given ones
+     * @throws IOException when the bytes are malformed
+     */
+    private void decode(CharsetDecoder decoder, ByteBuffer bytes, CharBuffer chars, boolean endOfInput)
+            throws IOException {
+        while (true) {
+            CoderResult result = decoder.decode(bytes, chars, endOfInput);
+            if (result.isError()) {
+                result.throwException();
+            }
+            flush(chars);
+            if (result.isUnderflow()) {
+                return;
+            }
+        }
+    }
+
+    private void flush(CharBuffer chars) {
+        chars.flip();
+        append(chars.array(), chars.arrayOffset() + chars.position(), chars.remaining());
+        chars.clear();
+    }
+
+    /**
+     * Append a chunk of the input and handle the sentences decided so far.
+     *
+     * @param chunk  characters
+     * @param offset offset of the first character in the array
+     * @param length number of characters
+     */
+    public void append(char[] chunk, int offset, int length) {
+        buffer.append(chunk, offset, length);
+        extractDecidedSentences();
+    }
+
+    /**
+     * Append a chunk of the input and handle the sentences decided so far.
+     *
+     * @param chunk characters
+     */
+    public void append(CharSequence chunk) {
+        buffer.append(chunk);
+        extractDecidedSentences();
+    }
+
+    /**
+     * Handle all the remaining sentences and the text which is not terminated.
+     * No more input can be appended after this call.
+     *
+     * @return offset of the remaining text which is not terminated
+     */
+    public long finish() {
+        findEndPositions();
+        int start = emit(endCount);
+        String remaining = buffer.substring(start);
+        long remainingOffset = bufferOffset + start;
+        buffer.setLength(0);
+        handler.remaining(remaining, remainingOffset);
+        return remainingOffset;
+    }
+
+    /**
+     * Get the number of characters held for the sentences which are not decided yet.
+     *
+     * @return number of buffered characters
+     */
+    int getBufferedLength() {
+        return buffer.length();
+    }
+
+    /**
+     * Get the total number of characters scanned for the sentence ends.
+     *
+     * @return number of scanned characters
+     */
+    long getScannedCharacters() {
+        return scannedCharacters;
+    }
+
+    private void extractDecidedSentences() {
+        // each scan reads at most RESCAN_FACTOR times the characters appended since the previous one
+        if ((long) (buffer.length() - scannedLength) * RESCAN_FACTOR < buffer.length() - windowStart()) {
+            return;
+        }
+        findEndPositions();
+        // a sentence is decided when the end of a later sentence is followed by enough characters
+        // to decide the white words and the terminators around it, since the detector does not look
+        // beyond the next terminator
+        int decided = Math.min(endCount - 1, resumeCount);
+        while (decided >= 0 && endPositions[decided] + lookahead > buffer.length()) {
+            decided--;
+        }
+        if (decided <= 0) {
+            return;
+        }
+        int start = emit(decided);
+        buffer.delete(0, start);
+        bufferOffset += start;
+        for (int i = decided; i < endCount; i++) {
+            endPositions[i - decided] = endPositions[i] - start;
+        }
+        endCount -= decided;
+        resumePosition -= start;
+        resumeCount -= decided;
+        if (windowed) {
+            whitePositions = whitePositions.get(start, whiteLength);
+            whiteLength -= start;
+        }
+        scannedLength = buffer.length();
+    }
+
+    private int windowStart() {
+        // the white words and the disambiguation at the resume position look back at most the lookahead
+        return windowed ? Math.max(0, resumePosition - lookahead) : 0;
+    }
+
+    private void findEndPositions() {
+        int windowStart = windowStart();
+        // a copy is read faster by the matchers than a view of the buffer
+        String window = buffer.substring(windowStart);
+        scannedCharacters += window.length();
+        EndOfSentenceCursor cursor;
+        if (windowed) {
+            // the occurrences of white words not ending before the last length are found again
+            extractor.findWhitePositions(buffer, Math.max(0, whiteLength - lookahead), whitePositions);
+            whiteLength = buffer.length();
+            cursor = extractor.cursor(window, resumePosition - windowStart,
+                    whitePositions.get(windowStart, buffer.length()));
+        } else {
+            cursor = extractor.cursor(window, resumePosition - windowStart);
+        }
+        cursor.trackResumePosition(window.length() - lookahead);
+        // the sentence ends after the resume position are found again
+        endCount = resumeCount;
+        int endPosition;
+        while ((endPosition = cursor.next()) >= 0) {
+            if (endCount == endPositions.length) {
+                endPositions = Arrays.copyOf(endPositions, endCount * 2);
+            }
+            endPositions[endCount++] = windowStart + endPosition;
+        }
+        resumeCount += cursor.getResumeCount();
+        resumePosition = windowStart + cursor.getResumePosition();
+        scannedLength = buffer.length();
+    }
+
+    private int emit(int count) {
+        int start = 0;
+        for (int i = 0; i < count; i++) {
+            int end = endPositions[i] + 1;
+            handler.sentence(buffer.substring(start, end), bufferOffset + start, bufferOffset + end);
+            start = end;
+        }
+        return start;
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+/**
+ * Engine used by {@link SentenceExtractor} to find end of sentence characters.
+ */
+public enum TerminatorEngine {
+    /**
+     * Regular expression built from the end of sentence characters and right quotations.
+     */
+    REGEX,
+    /**
+     * Character table lookup with a hand written scanner, which gives the same results as
+     * {@link #REGEX} without running the regex engine.
+     */
+    CHAR_TABLE
+}
@@ -30,30 +30,66 @@ import org.xml.sax.SAXException;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 public final class ConfigurationLoader {
     private static final Logger LOG =
             LoggerFactory.getLogger(ConfigurationLoader.class);
 
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    static {
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
     private static Symbol createSymbol(Element element) throws EOSerException {
         if (!element.hasAttribute("name") || !element.hasAttribute("value")) {
             throw new IllegalStateException("Found element does not have name and value attribute...");
         }
-        String value = element.getAttribute("value");
+        return createSymbol(
+                element.getAttribute("name"),
+                element.getAttribute("value"),
+                element.getAttribute("invalid-chars"),
+                element.getAttribute("before-space"),
+                element.getAttribute("after-space"));
+    }
+
+    private static Symbol createSymbol(XMLStreamReader reader) throws EOSerException {
+        String name = reader.getAttributeValue(null, "name");
+        String value = reader.getAttributeValue(null, "value");
+        if (name == null || value == null) {
+            throw new IllegalStateException("Found element does not have name and value attribute...");
+        }
+        String invalidChars = reader.getAttributeValue(null, "invalid-chars");
+        return createSymbol(
+                name,
+                value,
+                invalidChars != null ? invalidChars : "",
+                reader.getAttributeValue(null, "before-space"),
+                reader.getAttributeValue(null, "after-space"));
+    }
+
+    private static Symbol createSymbol(String name, String value, String invalidChars,
+                                       String beforeSpace, String afterSpace) throws EOSerException {
         if (value.length() != 1) {
             throw new EOSerException("value should be one character, specified: " + value);
         }
         char charValue = value.charAt(0);
         return new Symbol(
-                SymbolType.valueOf(element.getAttribute("name")),
+                SymbolType.valueOf(name),
                 charValue,
-                element.getAttribute("invalid-chars"),
-                Boolean.parseBoolean(element.getAttribute("before-space")),
-                Boolean.parseBoolean(element.getAttribute("after-space")));
+                invalidChars,
+                Boolean.parseBoolean(beforeSpace),
+                Boolean.parseBoolean(afterSpace));
     }
 
 
@@ -128,6 +164,92 @@ public final class ConfigurationLoader {
         return this.extractSymbolConfig(rootElement.getChildNodes());
     }
 
+    /**
+     * load symbol settings with a streaming parser, without building a DOM.
+     *
+     * @param configFile input configuration file
+     * @return custom symbols of the first symbol-conf block
+     * @throws cc.redpen.EOSerException when failed to load configuration from specified configuration file
+     */
+    public List<Symbol> loadStreaming(File configFile) throws EOSerException {
+        LOG.info("Loading config from specified config file: \"{}\"", configFile.getAbsolutePath());
+        try (InputStream fis = new FileInputStream(configFile)) {
+            return this.loadStreaming(fis);
+        } catch (IOException e) {
+            throw new EOSerException(e);
+        }
+    }
+
+    /**
+     * load symbol configuration with a streaming parser, without building a DOM.
+     * The result is the same as {@link #load(InputStream)}.
+     * Provided stream will be closed.
+     *
+     * @param stream input configuration settings
+     * @return custom symbols of the first symbol-conf block
+     * @throws cc.redpen.EOSerException when failed to load configuration from specified stream
+     */
+    public List<Symbol> loadStreaming(InputStream stream) throws EOSerException {
+        List<SymbolConfiguration> configurations = loadAll(stream);
+        if (configurations.isEmpty()) {
+            throw new IllegalStateException("No \"symbol-conf\" block found in the configuration");
+        } else if (configurations.size() > 1) {
+            LOG.warn("More than one \"symbol-conf\" blocks in the configuration");
+        }
+        return configurations.get(0).getSymbols();
+    }
+
+    /**
+     * load every symbol-conf block of a stream with a streaming parser. The blocks may be
+     * wrapped in any root element, and each can be identified with a name attribute, e.g.
+     * {@code <symbol-confs><symbol-conf name="a" lang="ja">...</symbol-conf>...</symbol-confs>}.
+     * Provided stream will be closed.
+     *
+     * @param stream input configuration settings
+     * @return configurations in the order of the stream
+     * @throws cc.redpen.EOSerException when failed to load configuration from specified stream
+     */
+    public List<SymbolConfiguration> loadAll(InputStream stream) throws EOSerException {
+        try (BufferedInputStream bis = new BufferedInputStream(stream)) {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(bis);
+            try {
+                List<SymbolConfiguration> configurations = new ArrayList<>();
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT
+                            && reader.getLocalName().equals("symbol-conf")) {
+                        configurations.add(readSymbolConfig(reader));
+                    }
+                }
+                return configurations;
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException | IOException e) {
+            throw new EOSerException(e);
+        }
+    }
+
+    private static SymbolConfiguration readSymbolConfig(XMLStreamReader reader)
+            throws XMLStreamException, EOSerException {
+        String language = reader.getAttributeValue(null, "lang");
+        if (language == null) {
+            LOG.warn("No language configuration...");
+            LOG.info("Set language to en");
+            language = "en";
+        }
+        Optional<String> name = Optional.ofNullable(reader.getAttributeValue(null, "name"));
+        List<Symbol> customSymbols = new ArrayList<>();
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT && reader.getLocalName().equals("symbol")) {
+                customSymbols.add(createSymbol(reader));
+            } else if (event == XMLStreamConstants.END_ELEMENT && reader.getLocalName().equals("symbol-conf")) {
+                break;
+            }
+        }
+        return new SymbolConfiguration(language, name, customSymbols);
+    }
+
     private List<Symbol> extractSymbolConfig(NodeList symbolTableConfigElementList)
             throws EOSerException {
         NodeList symbolTableElementList =
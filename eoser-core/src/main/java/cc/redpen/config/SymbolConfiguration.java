@@ -0,0 +1,106 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.config;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Contents of one symbol-conf element: the language, the optional name identifying the
+ * configuration in a multi-document stream and the custom symbols.
+ */
+public final class SymbolConfiguration {
+    private final String lang;
+    private final Optional<String> name;
+    private final List<Symbol> symbols;
+
+    /**
+     * Constructor.
+     *
+     * @param lang    language
+     * @param name    name of the configuration
+     * @param symbols custom symbols
+     */
+    public SymbolConfiguration(String lang, Optional<String> name, List<Symbol> symbols) {
+        this.lang = lang;
+        this.name = name;
+        this.symbols = Collections.unmodifiableList(symbols);
+    }
+
+    /**
+     * Get the language.
+     *
+     * @return language
+     */
+    public String getLang() {
+        return lang;
+    }
+
+    /**
+     * Get the name given with the name attribute.
+     *
+     * @return name of the configuration
+     */
+    public Optional<String> getName() {
+        return name;
+    }
+
+    /**
+     * Get the custom symbols.
+     *
+     * @return unmodifiable list of symbols
+     */
+    public List<Symbol> getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * Create a symbol table from the default symbols of the language and the custom symbols.
+     *
+     * @return symbol table
+     */
+    public SymbolTable toSymbolTable() {
+        return new SymbolTable(lang, Optional.empty(), symbols);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SymbolConfiguration that = (SymbolConfiguration) o;
+        return lang.equals(that.lang) && name.equals(that.name) && symbols.equals(that.symbols);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = lang.hashCode();
+        result = 31 * result + name.hashCode();
+        result = 31 * result + symbols.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "SymbolConfiguration{" +
+                "lang='" + lang + '\'' +
+                ", name=" + name +
+                ", symbols=" + symbols +
+                '}';
+    }
+}
@@ -17,7 +17,7 @@
  */
 package cc.redpen.config;
 
-
+import cc.redpen.util.FlightRecorderEvents;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,11 +28,20 @@ import static cc.redpen.config.SymbolType.*;
 
 /**
  * Configuration table of characters used in {@link cc.redpen.RedPen}.
+ * <p>
+ * Symbols are kept by type in an {@link EnumMap} and by value in a table of pages
+ * indexed by the character, so lookups do not box the character. Use
+ * {@link SymbolTableSnapshot} for an immutable table to share between threads.
  */
 public final class SymbolTable implements Serializable {
-    private static final long serialVersionUID = 1612920745151501631L;
-    private final Map<SymbolType, Symbol> symbolDictionary = new HashMap<>();
-    private final Map<Character, Symbol> valueDictionary = new HashMap<>();
+    private static final long serialVersionUID = -4183296412507321946L;
+    static final int PAGE_SHIFT = 8;
+    static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    static final int PAGE_MASK = PAGE_SIZE - 1;
+    static final int PAGE_COUNT = (Character.MAX_VALUE + 1) >>> PAGE_SHIFT;
+    private final Map<SymbolType, Symbol> symbolDictionary = new EnumMap<>(SymbolType.class);
+    // symbols by value, in pages of PAGE_SIZE characters allocated on the first write
+    private final Symbol[][] valuePages = new Symbol[PAGE_COUNT][];
     private final String type;
     private String lang;
     private static final Logger LOG = LoggerFactory.getLogger(SymbolTable.class);
@@ -42,6 +51,7 @@ public final class SymbolTable implements Serializable {
      */
     public SymbolTable(String lang, Optional<String> type, List<Symbol> customSymbols) {
         super();
+        Object event = FlightRecorderEvents.beginSymbolTableConstruction();
         this.lang = lang;
         this.type = type.orElse("");
         if (lang.equals("ja")) {
@@ -63,6 +73,35 @@ public final class SymbolTable implements Serializable {
             DEFAULT_SYMBOLS.values().forEach(this::overrideSymbol);
         }
         customSymbols.forEach(this::overrideSymbol);
+        FlightRecorderEvents.endSymbolTableConstruction(event, lang, this.type, symbolDictionary.size());
+    }
+
+    /**
+     * Constructor of a fully resolved table, used to restore a {@link SymbolTableSnapshot}.
+     */
+    SymbolTable(String lang, String type, Map<SymbolType, Symbol> symbols, Map<Character, Symbol> values) {
+        super();
+        this.lang = lang;
+        this.type = type;
+        this.symbolDictionary.putAll(symbols);
+        values.forEach(this::putValue);
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param other symbol table to copy
+     */
+    public SymbolTable(SymbolTable other) {
+        super();
+        this.lang = other.lang;
+        this.type = other.type;
+        this.symbolDictionary.putAll(other.symbolDictionary);
+        for (int i = 0; i < PAGE_COUNT; i++) {
+            if (other.valuePages[i] != null) {
+                this.valuePages[i] = other.valuePages[i].clone();
+            }
+        }
     }
 
     /**
@@ -72,7 +111,16 @@ public final class SymbolTable implements Serializable {
      */
     public void overrideSymbol(Symbol symbol) {
         symbolDictionary.put(symbol.getType(), symbol);
-        valueDictionary.put(symbol.getValue(), symbol);
+        putValue(symbol.getValue(), symbol);
+    }
+
+    private void putValue(char value, Symbol symbol) {
+        Symbol[] page = valuePages[value >>> PAGE_SHIFT];
+        if (page == null) {
+            page = new Symbol[PAGE_SIZE];
+            valuePages[value >>> PAGE_SHIFT] = page;
+        }
+        page[value & PAGE_MASK] = symbol;
     }
 
     /**
@@ -101,7 +149,8 @@ public final class SymbolTable implements Serializable {
      * @return character containing the settings
      */
     public Symbol getSymbolByValue(char value) {
-        return this.valueDictionary.get(value);
+        Symbol[] page = this.valuePages[value >>> PAGE_SHIFT];
+        return page != null ? page[value & PAGE_MASK] : null;
     }
 
     /**
@@ -116,6 +165,33 @@ public final class SymbolTable implements Serializable {
         return symbol != null ? symbol.getValue() : DEFAULT_SYMBOLS.get(type).getValue();
     }
 
+    /**
+     * Get the end of sentence characters, which are the full stop, the question mark and
+     * the exclamation mark of the table.
+     *
+     * @return end of sentence characters
+     */
+    public char[] getFullStops() {
+        return new char[]{
+                getValueOrFallbackToDefault(FULL_STOP),
+                getValueOrFallbackToDefault(QUESTION_MARK),
+                getValueOrFallbackToDefault(EXCLAMATION_MARK)
+        };
+    }
+
+    /**
+     * Get the right quotation characters, which close a sentence after its end of sentence
+     * character.
+     *
+     * @return right quotation characters
+     */
+    public char[] getRightQuotations() {
+        return new char[]{
+                getValueOrFallbackToDefault(RIGHT_SINGLE_QUOTATION_MARK),
+                getValueOrFallbackToDefault(RIGHT_DOUBLE_QUOTATION_MARK)
+        };
+    }
+
     /**
      * Detect the specified character is exit in the dictionary.
      *
@@ -124,13 +200,50 @@ public final class SymbolTable implements Serializable {
      *         character does not exist
      */
     public boolean containsSymbolByValue(char value) {
-        return this.valueDictionary.get(value) != null;
+        return getSymbolByValue(value) != null;
     }
 
     public String getLang() {
         return lang;
     }
 
+    String getType() {
+        return type;
+    }
+
+    Map<SymbolType, Symbol> getSymbolDictionary() {
+        return Collections.unmodifiableMap(symbolDictionary);
+    }
+
+    Map<Character, Symbol> getValueDictionary() {
+        Map<Character, Symbol> values = new LinkedHashMap<>();
+        for (int i = 0; i < PAGE_COUNT; i++) {
+            Symbol[] page = valuePages[i];
+            if (page != null) {
+                for (int j = 0; j < PAGE_SIZE; j++) {
+                    if (page[j] != null) {
+                        values.put((char) (i << PAGE_SHIFT | j), page[j]);
+                    }
+                }
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Copy the symbols by value, replacing the pages which were never written with a shared page.
+     *
+     * @param emptyPage page used for the characters without symbols
+     * @return pages of symbols indexed by the upper bits of the value
+     */
+    Symbol[][] copyValuePages(Symbol[] emptyPage) {
+        Symbol[][] pages = new Symbol[PAGE_COUNT][];
+        for (int i = 0; i < PAGE_COUNT; i++) {
+            pages[i] = valuePages[i] != null ? valuePages[i].clone() : emptyPage;
+        }
+        return pages;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -142,8 +255,7 @@ public final class SymbolTable implements Serializable {
         if (symbolDictionary != null ? !symbolDictionary.equals(that.symbolDictionary) : that.symbolDictionary != null)
             return false;
         if (type != null ? !type.equals(that.type) : that.type != null) return false;
-        if (valueDictionary != null ? !valueDictionary.equals(that.valueDictionary) : that.valueDictionary != null)
-            return false;
+        if (!Arrays.deepEquals(valuePages, that.valuePages)) return false;
 
         return true;
     }
@@ -151,7 +263,7 @@ public final class SymbolTable implements Serializable {
     @Override
     public int hashCode() {
         int result = symbolDictionary != null ? symbolDictionary.hashCode() : 0;
-        result = 31 * result + (valueDictionary != null ? valueDictionary.hashCode() : 0);
+        result = 31 * result + Arrays.deepHashCode(valuePages);
         result = 31 * result + (type != null ? type.hashCode() : 0);
         result = 31 * result + (lang != null ? lang.hashCode() : 0);
         return result;
@@ -161,7 +273,7 @@ public final class SymbolTable implements Serializable {
     public String toString() {
         return "SymbolTable{" +
                 "symbolDictionary=" + symbolDictionary +
-                ", valueDictionary=" + valueDictionary +
+                ", valueDictionary=" + getValueDictionary() +
                 ", type='" + type + '\'' +
                 ", lang='" + lang + '\'' +
                 '}';
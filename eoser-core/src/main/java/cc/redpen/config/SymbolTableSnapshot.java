@@ -0,0 +1,276 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.config;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Fully resolved {@link SymbolTable} with its end of sentence and right quotation
+ * characters, which can be stored in a compact binary format and restored without
+ * parsing the XML configuration or applying the default symbols again.
+ * <p>
+ * A snapshot is immutable, and looks up symbols by type and by value with plain array
+ * reads, so it can be shared between threads which check every character of a text.
+ * <p>
+ * The format starts with a magic number and a version, followed by the language, the
+ * type, the symbols by type, the symbols by value and the terminator characters.
+ */
+public final class SymbolTableSnapshot {
+    private static final int MAGIC = 0x454f5354; // "EOST"
+    private static final int VERSION = 1;
+    private static final Symbol[] EMPTY_PAGE = new Symbol[SymbolTable.PAGE_SIZE];
+
+    private final SymbolTable symbolTable;
+    private final char[] fullStops;
+    private final char[] rightQuotations;
+    private final Symbol[] symbolsByType;
+    private final Symbol[][] valuePages;
+
+    private SymbolTableSnapshot(SymbolTable symbolTable, char[] fullStops, char[] rightQuotations) {
+        this.symbolTable = symbolTable;
+        this.fullStops = fullStops;
+        this.rightQuotations = rightQuotations;
+        this.symbolsByType = new Symbol[SymbolType.values().length];
+        symbolTable.getSymbolDictionary().forEach((type, symbol) -> symbolsByType[type.ordinal()] = symbol);
+        this.valuePages = symbolTable.copyValuePages(EMPTY_PAGE);
+    }
+
+    /**
+     * Create a snapshot of a symbol table. Later changes of the table do not affect the snapshot.
+     *
+     * @param symbolTable symbol table
+     * @return snapshot
+     */
+    public static SymbolTableSnapshot of(SymbolTable symbolTable) {
+        SymbolTable copy = new SymbolTable(symbolTable);
+        return new SymbolTableSnapshot(copy, copy.getFullStops(), copy.getRightQuotations());
+    }
+
+    /**
+     * Get the symbol table. The returned table is a copy which can be modified freely.
+     *
+     * @return symbol table
+     */
+    public SymbolTable getSymbolTable() {
+        return new SymbolTable(symbolTable);
+    }
+
+    /**
+     * Get the language of the symbol table.
+     *
+     * @return language
+     */
+    public String getLang() {
+        return symbolTable.getLang();
+    }
+
+    /**
+     * Get the symbol of the type.
+     *
+     * @param type symbol type
+     * @return symbol, or null when the table does not have the type
+     */
+    public Symbol getSymbol(SymbolType type) {
+        return symbolsByType[type.ordinal()];
+    }
+
+    /**
+     * Get the symbol of the character.
+     *
+     * @param value character
+     * @return symbol, or null when no symbol has the character
+     */
+    public Symbol getSymbolByValue(char value) {
+        return valuePages[value >>> SymbolTable.PAGE_SHIFT][value & SymbolTable.PAGE_MASK];
+    }
+
+    /**
+     * Detect the specified character is a symbol.
+     *
+     * @param value character
+     * @return true when a symbol has the character
+     */
+    public boolean containsSymbolByValue(char value) {
+        return getSymbolByValue(value) != null;
+    }
+
+    /**
+     * Get the end of sentence characters.
+     *
+     * @return end of sentence characters
+     */
+    public char[] getFullStops() {
+        return fullStops.clone();
+    }
+
+    /**
+     * Get the right quotation characters.
+     *
+     * @return right quotation characters
+     */
+    public char[] getRightQuotations() {
+        return rightQuotations.clone();
+    }
+
+    /**
+     * Write the snapshot. The stream is not closed.
+     *
+     * @param out output stream
+     * @throws IOException when the snapshot can not be written
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeUTF(symbolTable.getLang());
+        data.writeUTF(symbolTable.getType());
+        Map<SymbolType, Symbol> symbols = symbolTable.getSymbolDictionary();
+        data.writeInt(symbols.size());
+        for (Symbol symbol : symbols.values()) {
+            writeSymbol(data, symbol);
+        }
+        Map<Character, Symbol> values = symbolTable.getValueDictionary();
+        data.writeInt(values.size());
+        for (Map.Entry<Character, Symbol> entry : values.entrySet()) {
+            data.writeChar(entry.getKey());
+            writeSymbol(data, entry.getValue());
+        }
+        writeChars(data, fullStops);
+        writeChars(data, rightQuotations);
+        data.flush();
+    }
+
+    /**
+     * Write the snapshot to a file.
+     *
+     * @param file output file
+     * @throws IOException when the snapshot can not be written
+     */
+    public void save(Path file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            write(out);
+        }
+    }
+
+    /**
+     * Read a snapshot written by {@link #write(OutputStream)}. The stream is not closed.
+     *
+     * @param in input stream
+     * @return snapshot
+     * @throws IOException when the snapshot can not be read or is not valid
+     */
+    public static SymbolTableSnapshot read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a symbol table snapshot");
+        }
+        int version = data.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported symbol table snapshot version: " + version);
+        }
+        String lang = data.readUTF();
+        String type = data.readUTF();
+        int symbolCount = readCount(data);
+        Map<SymbolType, Symbol> symbols = new HashMap<>();
+        for (int i = 0; i < symbolCount; i++) {
+            Symbol symbol = readSymbol(data);
+            symbols.put(symbol.getType(), symbol);
+        }
+        int valueCount = readCount(data);
+        Map<Character, Symbol> values = new HashMap<>();
+        for (int i = 0; i < valueCount; i++) {
+            char value = data.readChar();
+            values.put(value, readSymbol(data));
+        }
+        char[] fullStops = readChars(data);
+        char[] rightQuotations = readChars(data);
+        return new SymbolTableSnapshot(new SymbolTable(lang, type, symbols, values), fullStops, rightQuotations);
+    }
+
+    /**
+     * Read a snapshot from a file.
+     *
+     * @param file snapshot file
+     * @return snapshot
+     * @throws IOException when the snapshot can not be read or is not valid
+     */
+    public static SymbolTableSnapshot load(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return read(in);
+        }
+    }
+
+    private static void writeSymbol(DataOutputStream data, Symbol symbol) throws IOException {
+        data.writeUTF(symbol.getType().name());
+        data.writeChar(symbol.getValue());
+        writeChars(data, symbol.getInvalidChars());
+        data.writeBoolean(symbol.isNeedBeforeSpace());
+        data.writeBoolean(symbol.isNeedAfterSpace());
+    }
+
+    private static Symbol readSymbol(DataInputStream data) throws IOException {
+        String name = data.readUTF();
+        SymbolType type;
+        try {
+            type = SymbolType.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown symbol type: " + name, e);
+        }
+        char value = data.readChar();
+        char[] invalidChars = readChars(data);
+        boolean needBeforeSpace = data.readBoolean();
+        boolean needAfterSpace = data.readBoolean();
+        return new Symbol(type, value, new String(invalidChars), needBeforeSpace, needAfterSpace);
+    }
+
+    private static void writeChars(DataOutputStream data, char[] chars) throws IOException {
+        if (chars.length > 0xffff) {
+            throw new IOException("Too many characters: " + chars.length);
+        }
+        data.writeShort(chars.length);
+        for (char c : chars) {
+            data.writeChar(c);
+        }
+    }
+
+    private static char[] readChars(DataInputStream data) throws IOException {
+        char[] chars = new char[data.readUnsignedShort()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = data.readChar();
+        }
+        return chars;
+    }
+
+    private static int readCount(DataInputStream data) throws IOException {
+        int count = data.readInt();
+        if (count < 0 || count > Character.MAX_VALUE + 1) {
+            throw new IOException("Corrupted symbol table snapshot");
+        }
+        return count;
+    }
+}
@@ -19,6 +19,7 @@ package cc.redpen.model;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -27,9 +28,9 @@ import java.util.List;
 public final class Sentence implements Serializable {
     private static final long serialVersionUID = 3761982769692999924L;
     /**
-     * Links (including internal and external ones).
+     * Links (including internal and external ones), allocated when the first one is added.
      */
-    private final List<String> links;
+    private List<String> links;
     /**
      * Sentence position in a file.
      */
@@ -70,7 +71,6 @@ public final class Sentence implements Serializable {
         this.content = sentenceContent;
         this.lineNumber = sentencePosition;
         this.isFirstSentence = false;
-        this.links = new ArrayList<>();
         this.startPositionOffset = startOffset;
     }
 
@@ -83,10 +83,31 @@ public final class Sentence implements Serializable {
         return content;
     }
 
+    /**
+     * Get links in the sentence.
+     *
+     * @return unmodifiable list of links
+     */
+    public List<String> getLinks() {
+        return links != null ? Collections.unmodifiableList(links) : Collections.<String>emptyList();
+    }
+
+    /**
+     * Add a link in the sentence.
+     *
+     * @param link link
+     */
+    public void addLink(String link) {
+        if (links == null) {
+            links = new ArrayList<>();
+        }
+        links.add(link);
+    }
+
     @Override
     public String toString() {
         return "Sentence{" +
-                "links=" + links +
+                "links=" + getLinks() +
                 ", lineNumber=" + lineNumber +
                 ", content='" + content + '\'' +
                 ", startPositionOffset=" + startPositionOffset +
@@ -105,14 +126,14 @@ public final class Sentence implements Serializable {
         if (lineNumber != sentence.lineNumber) return false;
         if (startPositionOffset != sentence.startPositionOffset) return false;
         if (content != null ? !content.equals(sentence.content) : sentence.content != null) return false;
-        if (links != null ? !links.equals(sentence.links) : sentence.links != null) return false;
+        if (!getLinks().equals(sentence.getLinks())) return false;
 
         return true;
     }
 
     @Override
     public int hashCode() {
-        int result = links != null ? links.hashCode() : 0;
+        int result = getLinks().hashCode();
         result = 31 * result + lineNumber;
         result = 31 * result + (content != null ? content.hashCode() : 0);
         result = 31 * result + startPositionOffset;
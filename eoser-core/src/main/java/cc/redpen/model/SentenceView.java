@@ -0,0 +1,119 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.model;
+
+/**
+ * Sentence referring to a range of the source text.
+ * <p>
+ * Only the source and the offsets are kept, and the content is copied when it
+ * is asked for.
+ */
+public final class SentenceView implements CharSequence {
+    private final CharSequence source;
+    private final int startPosition;
+    private final int endPosition;
+
+    /**
+     * Constructor.
+     *
+     * @param source        source text
+     * @param startPosition offset of the first character of the sentence in the source
+     * @param endPosition   offset just after the last character of the sentence in the source
+     */
+    public SentenceView(CharSequence source, int startPosition, int endPosition) {
+        if (startPosition < 0 || endPosition < startPosition || endPosition > source.length()) {
+            throw new IndexOutOfBoundsException("Invalid range: " + startPosition + "-" + endPosition
+                    + " for length " + source.length());
+        }
+        this.source = source;
+        this.startPosition = startPosition;
+        this.endPosition = endPosition;
+    }
+
+    /**
+     * Get the source text.
+     *
+     * @return source text
+     */
+    public CharSequence getSource() {
+        return source;
+    }
+
+    /**
+     * Get the start position of the sentence in the source.
+     *
+     * @return offset of the first character
+     */
+    public int getStartPosition() {
+        return startPosition;
+    }
+
+    /**
+     * Get the end position of the sentence in the source.
+     *
+     * @return offset just after the last character
+     */
+    public int getEndPosition() {
+        return endPosition;
+    }
+
+    /**
+     * Get content of sentence. A new string is created for each call.
+     *
+     * @return sentence
+     */
+    public String getContent() {
+        return source.subSequence(startPosition, endPosition).toString();
+    }
+
+    /**
+     * Create a sentence with the copied content.
+     *
+     * @param lineNumber line number of sentence
+     * @return sentence
+     */
+    public Sentence toSentence(int lineNumber) {
+        return new Sentence(getContent(), lineNumber, startPosition);
+    }
+
+    @Override
+    public int length() {
+        return endPosition - startPosition;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length());
+        }
+        return source.charAt(startPosition + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end < start || end > length()) {
+            throw new IndexOutOfBoundsException("Invalid range: " + start + "-" + end + " for length " + length());
+        }
+        return new SentenceView(source, startPosition + start, startPosition + end);
+    }
+
+    @Override
+    public String toString() {
+        return getContent();
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+/**
+ * Decides the sentence ends found by {@link EndOfSentenceDetector} which can not be told
+ * from the characters around them alone.
+ */
+public interface BoundaryDisambiguator {
+    /**
+     * Decide a sentence end. Implementations should return quickly when the end is not
+     * ambiguous, since this is called for every sentence end.
+     *
+     * @param str         input string
+     * @param endPosition position of the last character of the sentence found by the detector
+     * @return position of the last character of the sentence, at or after the specified one,
+     *         or -1 when the sentence does not end there
+     */
+    int resolve(CharSequence str, int endPosition);
+
+    /**
+     * Get the number of characters after a sentence end which the decision depends on.
+     * The decision should not depend on more characters before the sentence end either.
+     *
+     * @return number of characters
+     */
+    int getLookahead();
+}
@@ -0,0 +1,109 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+/**
+ * Finds the next position of any character of a small set, such as the end of sentence
+ * characters, so that terminator matching only runs at candidate positions.
+ * <p>
+ * String input is copied into a buffer one block at a time and the block is scanned as an
+ * array, which avoids a bounds and coder check per character and lets the JVM use its
+ * vectorized copy for the conversion from Latin-1 strings. {@link Utf8CharSequence} input
+ * is scanned for the first bytes of the encoded candidates without decoding.
+ */
+final class CandidateScanner {
+    static final int BLOCK_SIZE = 64;
+
+    // open addressing table without collisions, indexed by the lower bits of the character
+    private final char[] keys;
+    private final int mask;
+    // first bytes of the UTF-8 encoded characters, or null when a character is a surrogate
+    private final boolean[] leadBytes;
+
+    /**
+     * Constructor.
+     *
+     * @param characters characters to find
+     */
+    CandidateScanner(char[] characters) {
+        int size = 16;
+        while (CharTableTerminatorPattern.hasCollision(size - 1, characters)) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.keys = new char[size];
+        for (int i = 0; i < size; i++) {
+            // a key which can never be found in its own slot
+            keys[i] = (char) ((i + 1) & mask);
+        }
+        for (char c : characters) {
+            keys[c & mask] = c;
+        }
+        boolean[] leads = new boolean[256];
+        for (char c : characters) {
+            if (Character.isSurrogate(c)) {
+                leads = null;
+                break;
+            }
+            leads[c < 0x80 ? c : c < 0x800 ? 0xc0 | c >> 6 : 0xe0 | c >> 12] = true;
+        }
+        this.leadBytes = leads;
+    }
+
+    boolean isLeadByte(byte b) {
+        return leadBytes[b & 0xff];
+    }
+
+    boolean contains(char c) {
+        return keys[c & mask] == c;
+    }
+
+    /**
+     * Find the first candidate at or after the specified position.
+     *
+     * @param input input
+     * @param from  position to start the search from
+     * @param block buffer of {@link #BLOCK_SIZE} characters owned by the caller
+     * @return position of the candidate, or -1 when there is none
+     */
+    int indexOf(CharSequence input, int from, char[] block) {
+        int length = input.length();
+        if (input instanceof String) {
+            String string = (String) input;
+            for (int i = from; i < length; i += BLOCK_SIZE) {
+                int count = Math.min(BLOCK_SIZE, length - i);
+                string.getChars(i, i + count, block, 0);
+                for (int j = 0; j < count; j++) {
+                    if (contains(block[j])) {
+                        return i + j;
+                    }
+                }
+            }
+            return -1;
+        }
+        if (input instanceof Utf8CharSequence && leadBytes != null) {
+            return ((Utf8CharSequence) input).indexOf(this, from);
+        }
+        for (int i = from; i < length; i++) {
+            if (contains(input.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
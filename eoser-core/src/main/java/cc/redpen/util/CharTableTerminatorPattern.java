@@ -0,0 +1,151 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+/**
+ * Terminator pattern which scans the input character by character with a table lookup,
+ * instead of running a regular expression.
+ * <p>
+ * It finds the same terminators as the alternation regex built by
+ * {@link cc.redpen.SentenceExtractor#constructEndSentencePattern()}: an end of sentence
+ * character, followed by a right quotation when there is one.
+ */
+public final class CharTableTerminatorPattern implements TerminatorPattern {
+    private static final byte FULL_STOP = 1;
+    private static final byte RIGHT_QUOTATION = 2;
+
+    // open addressing table without collisions, indexed by the lower bits of the character
+    private final char[] keys;
+    private final byte[] classes;
+    private final int mask;
+    private final CandidateScanner fullStops;
+
+    /**
+     * Constructor.
+     *
+     * @param fullStopList       end of sentence characters
+     * @param rightQuotationList right quotation characters
+     */
+    public CharTableTerminatorPattern(char[] fullStopList, char[] rightQuotationList) {
+        if (fullStopList == null || fullStopList.length == 0) {
+            throw new IllegalArgumentException("No end character is specified");
+        }
+        int size = 16;
+        while (hasCollision(size - 1, fullStopList, rightQuotationList)) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.keys = new char[size];
+        this.classes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            // a key which can never be found in its own slot
+            keys[i] = (char) ((i + 1) & mask);
+        }
+        for (char c : fullStopList) {
+            keys[c & mask] = c;
+            classes[c & mask] |= FULL_STOP;
+        }
+        for (char c : rightQuotationList) {
+            keys[c & mask] = c;
+            classes[c & mask] |= RIGHT_QUOTATION;
+        }
+        this.fullStops = new CandidateScanner(fullStopList);
+    }
+
+    static boolean hasCollision(int mask, char[]... charLists) {
+        char[] slots = new char[mask + 1];
+        boolean[] used = new boolean[mask + 1];
+        for (char[] chars : charLists) {
+            for (char c : chars) {
+                int slot = c & mask;
+                if (used[slot] && slots[slot] != c) {
+                    return true;
+                }
+                used[slot] = true;
+                slots[slot] = c;
+            }
+        }
+        return false;
+    }
+
+    boolean isFullStop(char c) {
+        int slot = c & mask;
+        return keys[slot] == c && (classes[slot] & FULL_STOP) != 0;
+    }
+
+    boolean isRightQuotation(char c) {
+        int slot = c & mask;
+        return keys[slot] == c && (classes[slot] & RIGHT_QUOTATION) != 0;
+    }
+
+    @Override
+    public TerminatorMatcher matcher(CharSequence input) {
+        return new CharTableTerminatorMatcher(input);
+    }
+
+    private final class CharTableTerminatorMatcher implements TerminatorMatcher {
+        private final char[] block = new char[CandidateScanner.BLOCK_SIZE];
+        private CharSequence input;
+        private int start = -1;
+        private int end = -1;
+
+        CharTableTerminatorMatcher(CharSequence input) {
+            this.input = input;
+        }
+
+        @Override
+        public void reset(CharSequence input) {
+            this.input = input;
+            this.start = -1;
+            this.end = -1;
+        }
+
+        @Override
+        public boolean find(int from) {
+            if (from < 0 || from > input.length()) {
+                throw new IndexOutOfBoundsException("Illegal start index");
+            }
+            int length = input.length();
+            int i = fullStops.indexOf(input, from, block);
+            if (i >= 0) {
+                start = i;
+                end = (i + 1 < length && isRightQuotation(input.charAt(i + 1))) ? i + 2 : i + 1;
+                return true;
+            }
+            start = -1;
+            end = -1;
+            return false;
+        }
+
+        @Override
+        public int start() {
+            if (start < 0) {
+                throw new IllegalStateException("No match available");
+            }
+            return start;
+        }
+
+        @Override
+        public int end() {
+            if (end < 0) {
+                throw new IllegalStateException("No match available");
+            }
+            return end;
+        }
+    }
+}
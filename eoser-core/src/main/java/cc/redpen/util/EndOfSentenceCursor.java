@@ -0,0 +1,141 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.util.BitSet;
+
+/**
+ * Cursor to find the sentence end positions of a string one after another.
+ * <p>
+ * The white word positions and the matcher are computed once for the whole
+ * string, so that walking through all the sentences is a single forward scan.
+ */
+public final class EndOfSentenceCursor {
+    private final EndOfSentenceDetector detector;
+    private CharSequence str;
+    private final TerminatorMatcher matcher;
+    private final BitSet whitePositions;
+    private int position;
+    // number of sentence ends found so far
+    private int count;
+    // characters which do not change when the string is extended, -1 when not tracking
+    private int stableLength = -1;
+    // true once the detection depends on a character which may change
+    private boolean unstable;
+    private int resumePosition;
+    private int resumeCount;
+
+    EndOfSentenceCursor(EndOfSentenceDetector detector, CharSequence str,
+                        TerminatorMatcher matcher, BitSet whitePositions, int startPosition) {
+        this.detector = detector;
+        this.str = str;
+        this.matcher = matcher;
+        this.whitePositions = whitePositions;
+        this.position = startPosition;
+        this.resumePosition = startPosition;
+    }
+
+    /**
+     * Get the next sentence end position and move the cursor just after it.
+     *
+     * @return position of full stop when there is a full stop, -1 otherwise
+     */
+    public int next() {
+        int endPosition = detector.getDisambiguatedEndPosition(this, str, position, matcher, whitePositions);
+        if (endPosition >= 0) {
+            position = endPosition + 1;
+            count++;
+        }
+        return endPosition;
+    }
+
+    /**
+     * Track the position from which the detection can be resumed when the string is
+     * extended by appending characters to it.
+     * <p>
+     * The characters before the stable length should decide the white words and the
+     * disambiguation around them, which takes the maximum white word length and the
+     * disambiguation lookahead before the end of the string.
+     *
+     * @param stableLength number of leading characters whose detection does not change
+     *                     when characters are appended
+     */
+    public void trackResumePosition(int stableLength) {
+        this.stableLength = stableLength;
+    }
+
+    /**
+     * Get the position from which a cursor on the extended string finds the same sentence
+     * ends as this cursor after the ones counted by {@link #getResumeCount()}.
+     *
+     * @return resume position, the start position when nothing is decided yet
+     */
+    public int getResumePosition() {
+        return resumePosition;
+    }
+
+    /**
+     * Get the number of sentence ends found before the resume position.
+     *
+     * @return number of sentence ends
+     */
+    public int getResumeCount() {
+        return resumeCount;
+    }
+
+    void read(int readPosition) {
+        if (readPosition >= stableLength) {
+            unstable = true;
+        }
+    }
+
+    void checkpoint(int offset) {
+        if (!unstable) {
+            resumePosition = offset;
+            resumeCount = count;
+        }
+    }
+
+    /**
+     * Reset the cursor to the beginning of a new string. The matcher and the white
+     * positions are reused, so that no memory is allocated for short strings.
+     *
+     * @param str new input string
+     */
+    public void reset(CharSequence str) {
+        this.str = str;
+        this.position = 0;
+        this.count = 0;
+        this.stableLength = -1;
+        this.unstable = false;
+        this.resumePosition = 0;
+        this.resumeCount = 0;
+        matcher.reset(str);
+        whitePositions.clear();
+        detector.findNonEndOfSentencePositions(str, whitePositions);
+    }
+
+    /**
+     * Get the current position, which is the start position of the next sentence.
+     *
+     * @return current position
+     */
+    public int getPosition() {
+        return position;
+    }
+}
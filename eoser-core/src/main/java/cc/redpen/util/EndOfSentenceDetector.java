@@ -18,18 +18,20 @@
 package cc.redpen.util;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Set;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
  * Utility class to handle a string.
  */
 public final class EndOfSentenceDetector {
-    private List<String> whiteList;
-    private Pattern pattern;
+    private WhiteWordAutomaton whiteWords;
+    private TerminatorPattern pattern;
+    private BoundaryDisambiguator disambiguator;
+    private SegmentationListener listener;
+    // returned by handleSuccessivePeriods when the sentence does not end at the terminator
+    private static final int CONTINUE = -2;
 
     /**
      * Constructor.
@@ -37,8 +39,7 @@ public final class EndOfSentenceDetector {
      * @param pattern end of sentence regex pattern
      */
     public EndOfSentenceDetector(Pattern pattern) {
-        this.pattern = pattern;
-        this.whiteList = new ArrayList<>();
+        this(pattern, new ArrayList<>());
     }
 
     /**
@@ -49,11 +50,115 @@ public final class EndOfSentenceDetector {
      */
     public EndOfSentenceDetector(Pattern pattern,
                                  List<String> whiteList) {
+        this(pattern, new WhiteWordAutomaton(whiteList));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param pattern    end of sentence regex pattern
+     * @param whiteWords automaton of words containing periods
+     */
+    public EndOfSentenceDetector(Pattern pattern,
+                                 WhiteWordAutomaton whiteWords) {
+        this(new RegexTerminatorPattern(pattern), whiteWords);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param pattern    end of sentence pattern
+     * @param whiteWords automaton of words containing periods
+     */
+    public EndOfSentenceDetector(TerminatorPattern pattern,
+                                 WhiteWordAutomaton whiteWords) {
+        this(pattern, whiteWords, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param pattern       end of sentence pattern
+     * @param whiteWords    automaton of words containing periods
+     * @param disambiguator disambiguator of the sentence ends, or null to keep all of them
+     */
+    public EndOfSentenceDetector(TerminatorPattern pattern,
+                                 WhiteWordAutomaton whiteWords,
+                                 BoundaryDisambiguator disambiguator) {
+        this(pattern, whiteWords, disambiguator, SegmentationListener.NONE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param pattern       end of sentence pattern
+     * @param whiteWords    automaton of words containing periods
+     * @param disambiguator disambiguator of the sentence ends, or null to keep all of them
+     * @param listener      receiver of the counters of the detection
+     */
+    public EndOfSentenceDetector(TerminatorPattern pattern,
+                                 WhiteWordAutomaton whiteWords,
+                                 BoundaryDisambiguator disambiguator,
+                                 SegmentationListener listener) {
         this.pattern = pattern;
-        this.whiteList = whiteList;
+        this.whiteWords = whiteWords;
+        this.disambiguator = disambiguator;
+        this.listener = listener;
+    }
+
+    /**
+     * Get the length of the longest white word.
+     * <p>
+     * Whether a position is inside a white word depends on at most this number of
+     * characters around it.
+     *
+     * @return maximum length of the white words
+     */
+    public int getMaxWhiteWordLength() {
+        return whiteWords.getMaxWordLength();
+    }
+
+    /**
+     * Detect whether a white word can overlap another occurrence of itself.
+     *
+     * @return true when the white positions depend on the whole text before them
+     */
+    public boolean hasOverlappingWhiteWords() {
+        return whiteWords.hasOverlappingWords();
+    }
+
+    /**
+     * Get the number of characters after a sentence end which the disambiguator looks at.
+     *
+     * @return number of characters, 0 without a disambiguator
+     */
+    public int getDisambiguationLookahead() {
+        return disambiguator != null ? disambiguator.getLookahead() : 0;
+    }
+
+    /**
+     * Detect whether the disambiguator keeps a sentence end as it is.
+     *
+     * @param str         input string
+     * @param endPosition position of the last character of a sentence
+     * @return true when there is no disambiguator or it keeps the sentence end
+     */
+    public boolean isKeptByDisambiguator(CharSequence str, int endPosition) {
+        return disambiguator == null || disambiguator.resolve(str, endPosition) == endPosition;
+    }
+
+    /**
+     * Detect whether the specified position can be a part of a white word.
+     *
+     * @param str      input string
+     * @param position position to check
+     * @return true when an occurrence of a white word covers the position
+     */
+    public boolean isInWhiteWord(CharSequence str, int position) {
+        return whiteWords.covers(str, position);
     }
 
-    private static boolean checkPosition(int position, String str) {
+    private static boolean checkPosition(int position, CharSequence str) {
         return -1 < position && position < str.length() - 1;
     }
 
@@ -64,9 +169,7 @@ public final class EndOfSentenceDetector {
      * @return position of full stop when there is a full stop, -1 otherwise
      */
     public int getSentenceEndPosition(String str) {
-        Set<Integer> nonEndOfSentencePositions =
-                extractNonEndOfSentencePositions(str);
-        return getEndPosition(str, 0, nonEndOfSentencePositions);
+        return getSentenceEndPosition(str, 0);
     }
 
     /**
@@ -77,92 +180,166 @@ public final class EndOfSentenceDetector {
      * @return position of full stop when there is a full stop, -1 otherwise
      */
     public int getSentenceEndPosition(String str, int startPosition) {
-        Set<Integer> nonEndOfSentencePositions =
-                extractNonEndOfSentencePositions(str);
-        return getEndPosition(str, startPosition, nonEndOfSentencePositions);
-    }
-
-    private int getEndPosition(String str,
-                               int offset, Set<Integer> whitePositions) {
-        int startPosition = -1;
-        int endPosition = -1;
-        Matcher matcher = pattern.matcher(str);
-        boolean matchResult = getEndPositionSkippingWhiteList(offset,
-                matcher, whitePositions);
-        if (matchResult) {
-            startPosition = matcher.start();
-            endPosition = matcher.end();
-        }
+        return cursor(str, startPosition).next();
+    }
+
+    /**
+     * Create a cursor to find the sentence end positions of the given string one after another.
+     *
+     * @param str input string
+     * @return cursor placed at the beginning of the string
+     */
+    public EndOfSentenceCursor cursor(CharSequence str) {
+        return cursor(str, 0);
+    }
+
+    /**
+     * Create a cursor to find the sentence end positions of the given string one after another.
+     *
+     * @param str           input string
+     * @param startPosition start offset position
+     * @return cursor placed at the start position
+     */
+    public EndOfSentenceCursor cursor(CharSequence str, int startPosition) {
+        return cursor(str, startPosition, extractNonEndOfSentencePositions(str));
+    }
+
+    /**
+     * Create a cursor with the positions covered by white words found beforehand, so that
+     * a caller extending the string finds them only for the appended characters.
+     *
+     * @param str            input string
+     * @param startPosition  start offset position
+     * @param whitePositions positions covered by white words, see {@link #findWhitePositions}
+     * @return cursor placed at the start position
+     */
+    public EndOfSentenceCursor cursor(CharSequence str, int startPosition, BitSet whitePositions) {
+        return new EndOfSentenceCursor(this, str, pattern.matcher(str), whitePositions, startPosition);
+    }
+
+    /**
+     * Add the positions covered by the white words starting at or after the given offset.
+     * <p>
+     * Unless the white words overlap themselves, the positions found before the last
+     * {@link #getMaxWhiteWordLength()} characters do not change when the string is extended.
+     *
+     * @param str            input string
+     * @param from           offset to start the search from
+     * @param whitePositions bit set to set the positions to
+     */
+    public void findWhitePositions(CharSequence str, int from, BitSet whitePositions) {
+        listener.onWhiteWordHits(whiteWords.findPositions(str, from, whitePositions));
+    }
 
-        if (checkPosition(endPosition - 1, str)) {
-            if ((StringUtils.isBasicLatin(str.charAt(startPosition))
-                    && (' ' == str.charAt(endPosition)
-                    || '\n' == str.charAt(endPosition)))) {
+    /**
+     * Get the next sentence end position from the offset.
+     * <p>
+     * Each iteration starts after the terminator found by the previous one, so the loop
+     * moves forward through the string and every character is matched a bounded number
+     * of times, whatever the number of successive terminators or white words is.
+     * <p>
+     * The characters read and the offsets reached are reported to the cursor, so that it
+     * can tell where to resume when the string is extended.
+     */
+    int getEndPosition(EndOfSentenceCursor cursor, CharSequence str, int offset,
+                       TerminatorMatcher matcher, BitSet whitePositions) {
+        int depth = 0;
+        while (true) {
+            cursor.checkpoint(offset);
+            int startPosition = -1;
+            int endPosition = -1;
+            boolean matchResult = getEndPositionSkippingWhiteList(cursor, str, offset,
+                    matcher, whitePositions);
+            if (matchResult) {
+                startPosition = matcher.start();
+                endPosition = matcher.end();
+            }
+
+            if (checkPosition(endPosition - 1, str)) {
+                if ((StringUtils.isBasicLatin(str.charAt(startPosition))
+                        && (' ' == str.charAt(endPosition)
+                        || '\n' == str.charAt(endPosition)))) {
+                    return endPosition - 1;
+                }
+                int position = handleSuccessivePeriods(cursor, str, endPosition - 1, matcher, ++depth);
+                if (position != CONTINUE) {
+                    return position;
+                }
+                offset = endPosition;
+                continue;
+            }
+
+            if (endPosition == str.length()) {
+                // NOTE: period in end of sentence should be the end of the sentence
+                // even if there is NO tailing whitespace.
                 return endPosition - 1;
             }
-            return handleSuccessivePeriods(str, endPosition - 1, whitePositions);
+            return -1;
         }
+    }
 
-        if (endPosition == str.length()) {
-            // NOTE: period in end of sentence should be the end of the sentence
-            // even if there is NO tailing whitespace.
-            return endPosition - 1;
+    int getDisambiguatedEndPosition(EndOfSentenceCursor cursor, CharSequence str, int offset,
+                                    TerminatorMatcher matcher, BitSet whitePositions) {
+        int endPosition = getEndPosition(cursor, str, offset, matcher, whitePositions);
+        while (disambiguator != null && endPosition >= 0) {
+            int resolved = disambiguator.resolve(str, endPosition);
+            if (resolved >= 0) {
+                return resolved;
+            }
+            endPosition = getEndPosition(cursor, str, endPosition + 1, matcher, whitePositions);
         }
-        return -1;
+        return endPosition;
     }
 
-    private boolean getEndPositionSkippingWhiteList(int offset,
-                                                    Matcher matcher, Set<Integer> whitePositions) {
+    private boolean getEndPositionSkippingWhiteList(EndOfSentenceCursor cursor, CharSequence str, int offset,
+                                                    TerminatorMatcher matcher, BitSet whitePositions) {
+        int depth = 0;
         boolean result = matcher.find(offset);
         while (result) {
             int startPosition = matcher.start();
             int endPosition = matcher.end();
-            boolean containsWhite = false;
-            for (int i = startPosition; i < endPosition; i++) {
-                if (whitePositions.contains(i)) {
-                    containsWhite = true;
-                    break;
-                }
-            }
-            if (containsWhite) {
-                result = getEndPositionSkippingWhiteList(endPosition,
-                        matcher, whitePositions);
-            } else {
+            // the character after the match decides whether a quotation follows it
+            cursor.read(endPosition);
+            int whitePosition = whitePositions.nextSetBit(startPosition);
+            if (whitePosition < 0 || whitePosition >= endPosition) {
                 break;
             }
+            listener.onWhiteListRejection(++depth);
+            result = matcher.find(endPosition);
+        }
+        if (!result) {
+            // appended characters neither start a match before the end nor remove white words
+            cursor.checkpoint(str.length());
         }
         return result;
     }
 
-    // TODO: efficient computing with common prefix search.
-    private Set<Integer> extractNonEndOfSentencePositions(
-            String inputString) {
-        Set<Integer> nonEndOfSentencePositions = new HashSet<>();
-        for (String whiteWord : this.whiteList) {
-            int offset = 0;
-            while (true) {
-                int matchStartPosition = inputString.indexOf(whiteWord, offset);
-                int matchEndPosition = matchStartPosition + whiteWord.length();
-                if (matchStartPosition == -1) {
-                    break;
-                }
-                for (int i = matchStartPosition;
-                     i < matchEndPosition; i++) {
-                    nonEndOfSentencePositions.add(i);
-                }
-                offset = matchEndPosition;
-            }
-        }
+    private BitSet extractNonEndOfSentencePositions(CharSequence str) {
+        BitSet nonEndOfSentencePositions = new BitSet();
+        findNonEndOfSentencePositions(str, nonEndOfSentencePositions);
         return nonEndOfSentencePositions;
     }
 
-    private int handleSuccessivePeriods(String str,
-                                        int position, Set<Integer> whitePositions) {
+    void findNonEndOfSentencePositions(CharSequence str, BitSet nonEndOfSentencePositions) {
+        listener.onWhiteWordHits(whiteWords.findPositions(str, nonEndOfSentencePositions));
+    }
+
+    /**
+     * Decide whether the terminator at the position ends the sentence.
+     *
+     * @return sentence end position, or {@link #CONTINUE} to look for the sentence end after
+     * the terminator
+     */
+    private int handleSuccessivePeriods(EndOfSentenceCursor cursor, CharSequence str, int position,
+                                        TerminatorMatcher matcher, int depth) {
+        listener.onSuccessivePeriods(depth);
         int nextPosition = position + 1;
-        Matcher matcher = this.pattern.matcher(str);
         int matchPosition = -1;
         if (matcher.find(nextPosition)) {
             matchPosition = matcher.start();
+            cursor.read(matcher.end());
+        } else {
+            cursor.read(str.length());
         }
 
         if (isNonAlphabetWithoutSucessiveEnd(str, nextPosition, matchPosition)
@@ -173,23 +350,18 @@ public final class EndOfSentenceDetector {
             return position;
         }
 
-        if (matchPosition == nextPosition) {
+        if (matchPosition == nextPosition && nextPosition == str.length() - 1) {
             // NOTE: handling of period in succession
-            if ((position + 1) == str.length() - 1) {
-                return nextPosition;
-            } else {
-                return getEndPosition(str, nextPosition, whitePositions);
-            }
-        } else {
-            return getEndPosition(str, nextPosition, whitePositions);
+            return nextPosition;
         }
+        return CONTINUE;
     }
 
-    private boolean isNonAlphabetEndOfSentenceWithPartialSentence(String str, int position, int matchPosition) {
+    private boolean isNonAlphabetEndOfSentenceWithPartialSentence(CharSequence str, int position, int matchPosition) {
         return (matchPosition == -1 && (!StringUtils.isBasicLatin(str.charAt(position))));
     }
 
-    private boolean isNonAlphabetWithoutSucessiveEnd(String str, int nextPosition, int matchPosition) {
+    private boolean isNonAlphabetWithoutSucessiveEnd(CharSequence str, int nextPosition, int matchPosition) {
         return matchPosition > -1 && (!StringUtils.isBasicLatin(str.charAt(matchPosition)))
                 && matchPosition != nextPosition;
     }
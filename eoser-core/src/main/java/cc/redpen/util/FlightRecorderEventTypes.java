@@ -0,0 +1,134 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Event types of {@link FlightRecorderEvents}. This class is only loaded when {@code jdk.jfr}
+ * is available.
+ */
+final class FlightRecorderEventTypes {
+    private FlightRecorderEventTypes() {
+    }
+
+    @Name("cc.redpen.Extract")
+    @Label("Sentence Extraction")
+    @Description("Segmentation of a text into sentences")
+    @Category("EOSer")
+    @Threshold("10 ms")
+    static final class ExtractEvent extends Event {
+        @Label("Language")
+        String language;
+
+        @Label("Input Length")
+        int length;
+
+        @Label("Sentences")
+        int sentences;
+    }
+
+    @Name("cc.redpen.ExtractorConstruction")
+    @Label("Sentence Extractor Construction")
+    @Category("EOSer")
+    @Threshold("1 ms")
+    static final class ExtractorConstructionEvent extends Event {
+        @Label("Language")
+        String language;
+
+        @Label("Terminator Engine")
+        String engine;
+    }
+
+    @Name("cc.redpen.SymbolTableConstruction")
+    @Label("Symbol Table Construction")
+    @Category("EOSer")
+    @Threshold("1 ms")
+    static final class SymbolTableConstructionEvent extends Event {
+        @Label("Language")
+        String language;
+
+        @Label("Type")
+        String type;
+
+        @Label("Symbols")
+        int symbols;
+    }
+
+    // looked up once, so that no event is allocated unless a recording enables its type
+    private static final EventType EXTRACT = EventType.getEventType(ExtractEvent.class);
+    private static final EventType EXTRACTOR_CONSTRUCTION =
+            EventType.getEventType(ExtractorConstructionEvent.class);
+    private static final EventType SYMBOL_TABLE_CONSTRUCTION =
+            EventType.getEventType(SymbolTableConstructionEvent.class);
+
+    private static <E extends Event> E begin(E event) {
+        event.begin();
+        return event;
+    }
+
+    static Object beginExtract() {
+        return EXTRACT.isEnabled() ? begin(new ExtractEvent()) : null;
+    }
+
+    static void endExtract(Object event, String language, int length, int sentences) {
+        ExtractEvent extractEvent = (ExtractEvent) event;
+        extractEvent.end();
+        if (extractEvent.shouldCommit()) {
+            extractEvent.language = language;
+            extractEvent.length = length;
+            extractEvent.sentences = sentences;
+            extractEvent.commit();
+        }
+    }
+
+    static Object beginExtractorConstruction() {
+        return EXTRACTOR_CONSTRUCTION.isEnabled() ? begin(new ExtractorConstructionEvent()) : null;
+    }
+
+    static void endExtractorConstruction(Object event, String language, String engine) {
+        ExtractorConstructionEvent constructionEvent = (ExtractorConstructionEvent) event;
+        constructionEvent.end();
+        if (constructionEvent.shouldCommit()) {
+            constructionEvent.language = language;
+            constructionEvent.engine = engine;
+            constructionEvent.commit();
+        }
+    }
+
+    static Object beginSymbolTableConstruction() {
+        return SYMBOL_TABLE_CONSTRUCTION.isEnabled() ? begin(new SymbolTableConstructionEvent()) : null;
+    }
+
+    static void endSymbolTableConstruction(Object event, String language, String type, int symbols) {
+        SymbolTableConstructionEvent constructionEvent = (SymbolTableConstructionEvent) event;
+        constructionEvent.end();
+        if (constructionEvent.shouldCommit()) {
+            constructionEvent.language = language;
+            constructionEvent.type = type;
+            constructionEvent.symbols = symbols;
+            constructionEvent.commit();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+/**
+ * Java Flight Recorder events of the segmentation.
+ * <p>
+ * The events are {@code cc.redpen.Extract} for {@code SentenceExtractor.extract},
+ * {@code cc.redpen.ExtractorConstruction} and {@code cc.redpen.SymbolTableConstruction}.
+ * They have the default thresholds of 10 ms, 1 ms and 1 ms, which can be changed in the
+ * recording settings like {@code cc.redpen.Extract#threshold=50 ms} so that only the slow calls
+ * are recorded.
+ * <p>
+ * The begin methods return an event to pass to the matching end method, or null when the event
+ * is not recorded, so nothing is measured unless JFR is recording the event. When the runtime
+ * has no {@code jdk.jfr} module, as older Java 8 runtimes, the event classes are never loaded
+ * and the methods do nothing.
+ */
+public final class FlightRecorderEvents {
+    private static final boolean AVAILABLE = isFlightRecorderAvailable();
+
+    private FlightRecorderEvents() {
+    }
+
+    private static boolean isFlightRecorderAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, FlightRecorderEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * Detect whether the runtime supports the flight recorder events.
+     *
+     * @return true when {@code jdk.jfr} is available
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Begin a {@code cc.redpen.Extract} event.
+     *
+     * @return event to pass to {@link #endExtract}, null when it is not recorded
+     */
+    public static Object beginExtract() {
+        return AVAILABLE ? FlightRecorderEventTypes.beginExtract() : null;
+    }
+
+    /**
+     * End a {@code cc.redpen.Extract} event and record it when it is slower than the threshold.
+     *
+     * @param event     event given by {@link #beginExtract}, or null
+     * @param language  language of the symbol table, empty when it is unknown
+     * @param length    length of the input
+     * @param sentences number of sentences extracted
+     */
+    public static void endExtract(Object event, String language, int length, int sentences) {
+        if (event != null) {
+            FlightRecorderEventTypes.endExtract(event, language, length, sentences);
+        }
+    }
+
+    /**
+     * Begin a {@code cc.redpen.ExtractorConstruction} event.
+     *
+     * @return event to pass to {@link #endExtractorConstruction}, null when it is not recorded
+     */
+    public static Object beginExtractorConstruction() {
+        return AVAILABLE ? FlightRecorderEventTypes.beginExtractorConstruction() : null;
+    }
+
+    /**
+     * End a {@code cc.redpen.ExtractorConstruction} event and record it when it is slower than
+     * the threshold.
+     *
+     * @param event    event given by {@link #beginExtractorConstruction}, or null
+     * @param language language of the symbol table, empty when it is unknown
+     * @param engine   name of the terminator engine
+     */
+    public static void endExtractorConstruction(Object event, String language, String engine) {
+        if (event != null) {
+            FlightRecorderEventTypes.endExtractorConstruction(event, language, engine);
+        }
+    }
+
+    /**
+     * Begin a {@code cc.redpen.SymbolTableConstruction} event.
+     *
+     * @return event to pass to {@link #endSymbolTableConstruction}, null when it is not recorded
+     */
+    public static Object beginSymbolTableConstruction() {
+        return AVAILABLE ? FlightRecorderEventTypes.beginSymbolTableConstruction() : null;
+    }
+
+    /**
+     * End a {@code cc.redpen.SymbolTableConstruction} event and record it when it is slower than
+     * the threshold.
+     *
+     * @param event    event given by {@link #beginSymbolTableConstruction}, or null
+     * @param language language of the symbol table
+     * @param type     type of the symbol table, empty for the default
+     * @param symbols  number of symbols in the table
+     */
+    public static void endSymbolTableConstruction(Object event, String language, String type, int symbols) {
+        if (event != null) {
+            FlightRecorderEventTypes.endSymbolTableConstruction(event, language, type, symbols);
+        }
+    }
+}
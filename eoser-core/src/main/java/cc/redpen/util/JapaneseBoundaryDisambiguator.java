@@ -0,0 +1,152 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Disambiguator of Japanese sentence ends with the Kuromoji morphological analyzer.
+ * <p>
+ * Only two kinds of sentence ends are analyzed, using a small window of text around them:
+ * <ul>
+ * <li>a terminator followed by closing brackets, which ends the sentence after the brackets,
+ * unless a particle or an auxiliary verb follows them as in 「はい。」と言った。</li>
+ * <li>a period between Latin letters or digits, such as Ｎｏｄｅ．ｊｓ, which does not end the
+ * sentence when it is a part of a word or when a particle or an auxiliary verb follows
+ * the word after it</li>
+ * </ul>
+ * Other sentence ends are kept without tokenizing anything, so the cost depends on the number
+ * of ambiguous sentence ends and not on the length of the text. The Kuromoji tokenizer and its
+ * dictionary are loaded on the first ambiguous sentence end and shared by all the instances.
+ * Kuromoji is an optional dependency of eoser-core and has to be in the class path.
+ */
+public final class JapaneseBoundaryDisambiguator implements BoundaryDisambiguator {
+    private static final int WINDOW = 16;
+    private static final String CLOSING_BRACKETS = "」』）)】〕〉》］]｝}";
+    private static final String PERIODS = ".．";
+    private static final String[] CONTINUATIONS = {"助詞", "助動詞", "名詞,接尾"};
+
+    private final Function<String, List<Morpheme>> tokenizer;
+
+    /**
+     * Constructor.
+     *
+     * @throws IllegalStateException when Kuromoji is not in the class path
+     */
+    public JapaneseBoundaryDisambiguator() {
+        this(text -> KuromojiTokenizer.tokenize(text));
+        try {
+            // only look the class up, the dictionary is loaded on the first use
+            Class.forName("org.atilika.kuromoji.Tokenizer", false, getClass().getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Kuromoji is not found in the class path", e);
+        }
+    }
+
+    JapaneseBoundaryDisambiguator(Function<String, List<Morpheme>> tokenizer) {
+        this.tokenizer = tokenizer;
+    }
+
+    @Override
+    public int resolve(CharSequence str, int endPosition) {
+        int next = endPosition + 1;
+        if (next < str.length() && isClosingBracket(str.charAt(next))) {
+            int afterBrackets = next;
+            while (afterBrackets < str.length() && isClosingBracket(str.charAt(afterBrackets))) {
+                afterBrackets++;
+            }
+            if (afterBrackets < str.length() && startsWithContinuation(str, afterBrackets)) {
+                return -1;
+            }
+            return afterBrackets - 1;
+        }
+        if (isPeriodInLatinRun(str, endPosition)) {
+            int start = Math.max(0, endPosition - WINDOW);
+            int end = Math.min(str.length(), next + WINDOW);
+            List<Morpheme> morphemes = tokenizer.apply(str.subSequence(start, end).toString());
+            int period = endPosition - start;
+            for (int i = 0; i < morphemes.size(); i++) {
+                Morpheme morpheme = morphemes.get(i);
+                if (morpheme.start <= period && period < morpheme.end) {
+                    if (morpheme.end - morpheme.start > 1) {
+                        return -1;
+                    }
+                    for (int j = i + 1; j < Math.min(i + 3, morphemes.size()); j++) {
+                        if (isContinuation(morphemes.get(j))) {
+                            return -1;
+                        }
+                    }
+                    break;
+                }
+            }
+        }
+        return endPosition;
+    }
+
+    @Override
+    public int getLookahead() {
+        return 2 * WINDOW;
+    }
+
+    private boolean startsWithContinuation(CharSequence str, int position) {
+        int end = Math.min(str.length(), position + WINDOW);
+        List<Morpheme> morphemes = tokenizer.apply(str.subSequence(position, end).toString());
+        return !morphemes.isEmpty() && isContinuation(morphemes.get(0));
+    }
+
+    private static boolean isContinuation(Morpheme morpheme) {
+        for (String partOfSpeech : CONTINUATIONS) {
+            if (morpheme.partOfSpeech.startsWith(partOfSpeech)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isClosingBracket(char c) {
+        return CLOSING_BRACKETS.indexOf(c) >= 0;
+    }
+
+    static boolean isPeriodInLatinRun(CharSequence str, int position) {
+        return position > 0 && position + 1 < str.length()
+                && PERIODS.indexOf(str.charAt(position)) >= 0
+                && isLatinLetterOrDigit(str.charAt(position - 1))
+                && isLatinLetterOrDigit(str.charAt(position + 1));
+    }
+
+    private static boolean isLatinLetterOrDigit(char c) {
+        return ('a' <= c && c <= 'z') || ('A' <= c && c <= 'Z') || ('0' <= c && c <= '9')
+                || ('ａ' <= c && c <= 'ｚ') || ('Ａ' <= c && c <= 'Ｚ') || ('０' <= c && c <= '９');
+    }
+
+    /**
+     * Token given by the morphological analyzer.
+     */
+    static final class Morpheme {
+        final int start;
+        final int end;
+        final String partOfSpeech;
+
+        Morpheme(int start, int end, String partOfSpeech) {
+            this.start = start;
+            this.end = end;
+            this.partOfSpeech = partOfSpeech;
+        }
+    }
+}
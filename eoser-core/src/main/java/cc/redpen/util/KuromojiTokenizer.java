@@ -0,0 +1,47 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import cc.redpen.util.JapaneseBoundaryDisambiguator.Morpheme;
+import org.atilika.kuromoji.Token;
+import org.atilika.kuromoji.Tokenizer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holder of the shared Kuromoji tokenizer, which loads the dictionary when this class is
+ * first used. It is the only class referring to Kuromoji, so that Kuromoji is not needed
+ * unless {@link JapaneseBoundaryDisambiguator} tokenizes a text.
+ */
+final class KuromojiTokenizer {
+    private static final Tokenizer TOKENIZER = Tokenizer.builder().build();
+
+    private KuromojiTokenizer() {
+    }
+
+    static List<Morpheme> tokenize(String text) {
+        List<Token> tokens = TOKENIZER.tokenize(text);
+        List<Morpheme> morphemes = new ArrayList<>(tokens.size());
+        for (Token token : tokens) {
+            int start = token.getPosition();
+            morphemes.add(new Morpheme(start, start + token.getSurfaceForm().length(), token.getPartOfSpeech()));
+        }
+        return morphemes;
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Listener aggregating the counters of the segmentation, which can be shared by the
+ * extractors of many threads and exported to a monitoring system.
+ */
+public final class LongAdderSegmentationListener implements SegmentationListener {
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder characters = new LongAdder();
+    private final LongAdder sentences = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder whiteWordHits = new LongAdder();
+    private final LongAdder whiteListRejections = new LongAdder();
+    private final LongAccumulator maxWhiteListDepth = new LongAccumulator(Math::max, 0);
+    private final LongAdder successivePeriods = new LongAdder();
+    private final LongAccumulator maxSuccessivePeriodsDepth = new LongAccumulator(Math::max, 0);
+
+    @Override
+    public void onExtracted(int characters, int sentences, long nanos) {
+        this.calls.increment();
+        this.characters.add(characters);
+        this.sentences.add(sentences);
+        this.nanos.add(nanos);
+        this.maxNanos.accumulate(nanos);
+    }
+
+    @Override
+    public void onWhiteWordHits(int count) {
+        whiteWordHits.add(count);
+    }
+
+    @Override
+    public void onWhiteListRejection(int depth) {
+        whiteListRejections.increment();
+        maxWhiteListDepth.accumulate(depth);
+    }
+
+    @Override
+    public void onSuccessivePeriods(int depth) {
+        successivePeriods.increment();
+        maxSuccessivePeriodsDepth.accumulate(depth);
+    }
+
+    /**
+     * Get the number of segmented texts.
+     *
+     * @return number of calls
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * Get the number of scanned characters.
+     *
+     * @return number of characters
+     */
+    public long getCharacters() {
+        return characters.sum();
+    }
+
+    /**
+     * Get the number of emitted sentences.
+     *
+     * @return number of sentences
+     */
+    public long getSentences() {
+        return sentences.sum();
+    }
+
+    /**
+     * Get the total wall time of the segmentation.
+     *
+     * @return wall time in nanoseconds
+     */
+    public long getNanos() {
+        return nanos.sum();
+    }
+
+    /**
+     * Get the longest wall time of a single text.
+     *
+     * @return wall time in nanoseconds
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Get the number of occurrences of the white words.
+     *
+     * @return number of white word hits
+     */
+    public long getWhiteWordHits() {
+        return whiteWordHits.sum();
+    }
+
+    /**
+     * Get the number of terminator matches rejected by the white words.
+     *
+     * @return number of rejected matches
+     */
+    public long getWhiteListRejections() {
+        return whiteListRejections.sum();
+    }
+
+    /**
+     * Get the largest number of successive terminator matches rejected by the white words.
+     *
+     * @return maximum depth
+     */
+    public long getMaxWhiteListDepth() {
+        return maxWhiteListDepth.get();
+    }
+
+    /**
+     * Get the number of terminators checked for the terminators following them.
+     *
+     * @return number of checks
+     */
+    public long getSuccessivePeriods() {
+        return successivePeriods.sum();
+    }
+
+    /**
+     * Get the largest number of successive terminators checked at once.
+     *
+     * @return maximum depth
+     */
+    public long getMaxSuccessivePeriodsDepth() {
+        return maxSuccessivePeriodsDepth.get();
+    }
+
+    /**
+     * Reset all the counters to zero. Counters updated concurrently may be partially reset.
+     */
+    public void reset() {
+        calls.reset();
+        characters.reset();
+        sentences.reset();
+        nanos.reset();
+        maxNanos.reset();
+        whiteWordHits.reset();
+        whiteListRejections.reset();
+        maxWhiteListDepth.reset();
+        successivePeriods.reset();
+        maxSuccessivePeriodsDepth.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "calls=" + getCalls() + ", characters=" + getCharacters() + ", sentences=" + getSentences()
+                + ", nanos=" + getNanos() + ", maxNanos=" + getMaxNanos()
+                + ", whiteWordHits=" + getWhiteWordHits() + ", whiteListRejections=" + getWhiteListRejections()
+                + ", maxWhiteListDepth=" + getMaxWhiteListDepth() + ", successivePeriods=" + getSuccessivePeriods()
+                + ", maxSuccessivePeriodsDepth=" + getMaxSuccessivePeriodsDepth();
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Terminator pattern backed by a regular expression.
+ * <p>
+ * When the characters which can start a match are known, the matcher skips to the next of
+ * them before running the regex, instead of trying the regex at every position.
+ */
+public final class RegexTerminatorPattern implements TerminatorPattern {
+    private final Pattern pattern;
+    private final CandidateScanner candidates;
+
+    /**
+     * Constructor.
+     *
+     * @param pattern end of sentence regex pattern
+     */
+    public RegexTerminatorPattern(Pattern pattern) {
+        this.pattern = pattern;
+        this.candidates = null;
+    }
+
+    /**
+     * Constructor of a pattern whose matches always start with one of the specified characters.
+     *
+     * @param pattern      end of sentence regex pattern
+     * @param fullStopList characters which can start a match of the pattern
+     */
+    public RegexTerminatorPattern(Pattern pattern, char[] fullStopList) {
+        this.pattern = pattern;
+        this.candidates = new CandidateScanner(fullStopList);
+    }
+
+    @Override
+    public TerminatorMatcher matcher(CharSequence input) {
+        if (candidates == null) {
+            return new RegexTerminatorMatcher(pattern.matcher(input));
+        }
+        return new SkippingRegexTerminatorMatcher(pattern.matcher(input), input, candidates);
+    }
+
+    private static class RegexTerminatorMatcher implements TerminatorMatcher {
+        final Matcher matcher;
+
+        RegexTerminatorMatcher(Matcher matcher) {
+            this.matcher = matcher;
+        }
+
+        @Override
+        public void reset(CharSequence input) {
+            matcher.reset(input);
+        }
+
+        @Override
+        public boolean find(int from) {
+            return matcher.find(from);
+        }
+
+        @Override
+        public int start() {
+            return matcher.start();
+        }
+
+        @Override
+        public int end() {
+            return matcher.end();
+        }
+    }
+
+    private static final class SkippingRegexTerminatorMatcher extends RegexTerminatorMatcher {
+        private final CandidateScanner candidates;
+        private final char[] block = new char[CandidateScanner.BLOCK_SIZE];
+        private CharSequence input;
+
+        SkippingRegexTerminatorMatcher(Matcher matcher, CharSequence input, CandidateScanner candidates) {
+            super(matcher);
+            this.input = input;
+            this.candidates = candidates;
+        }
+
+        @Override
+        public void reset(CharSequence input) {
+            super.reset(input);
+            this.input = input;
+        }
+
+        @Override
+        public boolean find(int from) {
+            if (from < 0 || from > input.length()) {
+                throw new IndexOutOfBoundsException("Illegal start index");
+            }
+            int candidate = candidates.indexOf(input, from, block);
+            // searching from the end fails as well, and clears the previous match
+            return matcher.find(candidate >= 0 ? candidate : input.length());
+        }
+    }
+}
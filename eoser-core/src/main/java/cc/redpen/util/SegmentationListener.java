@@ -0,0 +1,69 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+/**
+ * Receives the counters of the sentence segmentation, to find out why some texts take
+ * much longer than others.
+ * <p>
+ * All the methods do nothing by default, and {@link #NONE} is used when no listener is
+ * specified. The methods are called on the segmenting thread, so implementations shared
+ * by extractors on several threads have to be thread safe, as
+ * {@link LongAdderSegmentationListener} is.
+ */
+public interface SegmentationListener {
+    /**
+     * Listener which ignores everything.
+     */
+    SegmentationListener NONE = new SegmentationListener() {
+    };
+
+    /**
+     * Called after a text is segmented.
+     *
+     * @param characters number of characters scanned
+     * @param sentences  number of sentences emitted
+     * @param nanos      wall time in nanoseconds
+     */
+    default void onExtracted(int characters, int sentences, long nanos) {
+    }
+
+    /**
+     * Called when the white words of a text are found.
+     *
+     * @param count number of occurrences of the white words
+     */
+    default void onWhiteWordHits(int count) {
+    }
+
+    /**
+     * Called when a terminator match is rejected because it is a part of a white word.
+     *
+     * @param depth number of the successive matches rejected so far, starting from 1
+     */
+    default void onWhiteListRejection(int depth) {
+    }
+
+    /**
+     * Called when a terminator is checked for the terminators following it.
+     *
+     * @param depth number of the successive terminators checked so far, starting from 1
+     */
+    default void onSuccessivePeriods(int depth) {
+    }
+}
@@ -19,10 +19,10 @@ package cc.redpen.util;
 
 public class StringUtils {
     public static boolean isKatakana(char c) {
-        return Character.UnicodeBlock.of(c) == Character.UnicodeBlock.KATAKANA;
+        return c >= '\u30A0' && c <= '\u30FF';
     }
 
     public static boolean isBasicLatin(char c) {
-        return Character.UnicodeBlock.of(c) == Character.UnicodeBlock.BASIC_LATIN;
+        return c <= '\u007F';
     }
 }
@@ -0,0 +1,53 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+/**
+ * Finds terminators (end of sentence characters optionally followed by a right quotation)
+ * in an input string. The methods have the same meaning as in {@link java.util.regex.Matcher}.
+ */
+public interface TerminatorMatcher {
+    /**
+     * Reset the matcher with a new input, keeping the allocated state.
+     *
+     * @param input new input
+     */
+    void reset(CharSequence input);
+
+    /**
+     * Reset the matcher and find the next terminator starting at the specified position.
+     *
+     * @param from position to start the search from
+     * @return true when a terminator is found
+     */
+    boolean find(int from);
+
+    /**
+     * Get the start position of the last found terminator.
+     *
+     * @return start position
+     */
+    int start();
+
+    /**
+     * Get the position just after the last found terminator.
+     *
+     * @return end position
+     */
+    int end();
+}
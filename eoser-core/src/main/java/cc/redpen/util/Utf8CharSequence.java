@@ -0,0 +1,253 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * UTF-8 encoded text seen as a sequence of UTF-16 characters, decoded on access instead of
+ * up front, so that sentence boundaries can be found without creating a String.
+ * <p>
+ * The input is validated and its characters are counted once when the sequence is created.
+ * Accesses are fastest in increasing order, as done by the extractor: a cursor remembers
+ * the last decoded position, and moving it costs the number of characters in between.
+ * Byte offsets are computed with a cursor of their own, since they are asked for in
+ * increasing order while the characters are read back and forth.
+ * The bytes must not be modified while the sequence is in use, and the sequence is not
+ * thread safe.
+ */
+public final class Utf8CharSequence implements CharSequence {
+    private final ByteBuffer bytes;
+    private final int limit;
+    private final int length;
+    private final Cursor characters = new Cursor();
+    private final Cursor offsets = new Cursor();
+
+    /**
+     * Constructor. The bytes from the position to the limit of the buffer are used, and the
+     * position of the buffer is not changed.
+     *
+     * @param buffer UTF-8 encoded text
+     * @throws IllegalArgumentException when the text is not valid UTF-8
+     */
+    public Utf8CharSequence(ByteBuffer buffer) {
+        this.bytes = buffer.slice();
+        this.limit = bytes.limit();
+        this.length = countChars();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param bytes UTF-8 encoded text
+     * @throws IllegalArgumentException when the text is not valid UTF-8
+     */
+    public Utf8CharSequence(byte[] bytes) {
+        this(ByteBuffer.wrap(bytes));
+    }
+
+    private int countChars() {
+        int chars = 0;
+        int i = 0;
+        while (i < limit) {
+            int lead = bytes.get(i) & 0xff;
+            if (lead < 0x80) {
+                i++;
+                chars++;
+                continue;
+            }
+            int size = validate(i, lead);
+            i += size;
+            chars += size == 4 ? 2 : 1;
+        }
+        return chars;
+    }
+
+    private int validate(int position, int lead) {
+        if (lead < 0xc2) {
+            throw malformed(position);
+        } else if (lead < 0xe0) {
+            continuation(position, 1);
+            return 2;
+        } else if (lead < 0xf0) {
+            int second = continuation(position, 1);
+            if ((lead == 0xe0 && second < 0xa0) || (lead == 0xed && second >= 0xa0)) {
+                // overlong encoding or surrogate
+                throw malformed(position);
+            }
+            continuation(position, 2);
+            return 3;
+        } else if (lead < 0xf5) {
+            int second = continuation(position, 1);
+            if ((lead == 0xf0 && second < 0x90) || (lead == 0xf4 && second >= 0x90)) {
+                // overlong encoding or beyond U+10FFFF
+                throw malformed(position);
+            }
+            continuation(position, 2);
+            continuation(position, 3);
+            return 4;
+        }
+        throw malformed(position);
+    }
+
+    private int continuation(int position, int index) {
+        if (position + index >= limit) {
+            throw malformed(position);
+        }
+        int b = bytes.get(position + index) & 0xff;
+        if ((b & 0xc0) != 0x80) {
+            throw malformed(position);
+        }
+        return b;
+    }
+
+    private static IllegalArgumentException malformed(int position) {
+        return new IllegalArgumentException("Malformed UTF-8 input at byte " + position);
+    }
+
+    private static int sizeOf(int lead) {
+        return lead < 0x80 ? 1 : lead < 0xe0 ? 2 : lead < 0xf0 ? 3 : 4;
+    }
+
+    private char decode(int position, int index, int startIndex) {
+        int lead = bytes.get(position) & 0xff;
+        if (lead < 0x80) {
+            return (char) lead;
+        } else if (lead < 0xe0) {
+            return (char) ((lead & 0x1f) << 6 | bytes.get(position + 1) & 0x3f);
+        } else if (lead < 0xf0) {
+            return (char) ((lead & 0x0f) << 12 | (bytes.get(position + 1) & 0x3f) << 6
+                    | bytes.get(position + 2) & 0x3f);
+        }
+        int codePoint = (lead & 0x07) << 18 | (bytes.get(position + 1) & 0x3f) << 12
+                | (bytes.get(position + 2) & 0x3f) << 6 | bytes.get(position + 3) & 0x3f;
+        return index == startIndex ? Character.highSurrogate(codePoint) : Character.lowSurrogate(codePoint);
+    }
+
+    /**
+     * Position in the text: the start of the encoded character containing a character index.
+     */
+    private final class Cursor {
+        private int position;
+        private int index;
+
+        void moveTo(int target) {
+            if (target < index) {
+                if (target < index - target) {
+                    position = 0;
+                    index = 0;
+                } else {
+                    while (index > target) {
+                        do {
+                            position--;
+                        } while ((bytes.get(position) & 0xc0) == 0x80);
+                        index -= (bytes.get(position) & 0xff) >= 0xf0 ? 2 : 1;
+                    }
+                }
+            }
+            while (index < target) {
+                int lead = bytes.get(position) & 0xff;
+                if (lead >= 0xf0) {
+                    if (index + 1 == target) {
+                        // low surrogate of the character at the cursor
+                        break;
+                    }
+                    index += 2;
+                } else {
+                    index++;
+                }
+                position += sizeOf(lead);
+            }
+        }
+
+        void moveToPosition(int target) {
+            while (position < target) {
+                int lead = bytes.get(position) & 0xff;
+                index += lead >= 0xf0 ? 2 : 1;
+                position += sizeOf(lead);
+            }
+        }
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+        characters.moveTo(index);
+        return decode(characters.position, index, characters.index);
+    }
+
+    /**
+     * Get the byte offset of a character. For the low surrogate of a character outside the
+     * BMP, the offset of the whole encoded character is returned.
+     *
+     * @param index character index, from 0 to the length
+     * @return byte offset from the start of the text
+     */
+    public int byteOffset(int index) {
+        if (index < 0 || index > length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+        offsets.moveTo(index);
+        return offsets.position;
+    }
+
+    /**
+     * Find the first candidate at or after the specified character index, matching the
+     * encoded lead bytes of the candidates before decoding.
+     */
+    int indexOf(CandidateScanner candidates, int from) {
+        if (from >= length) {
+            return -1;
+        }
+        characters.moveTo(from);
+        // the lead bytes of the candidates never appear inside an encoded character,
+        // and the candidates are in the BMP, so they are decoded without moving the cursor
+        for (int i = characters.index < from ? characters.position + 4 : characters.position; i < limit; i++) {
+            if (candidates.isLeadByte(bytes.get(i)) && candidates.contains(decode(i, 0, 0))) {
+                characters.moveToPosition(i);
+                return characters.index;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+        StringBuilder sb = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            sb.append(charAt(i));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return StandardCharsets.UTF_8.decode(bytes.duplicate()).toString();
+    }
+}
@@ -0,0 +1,476 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton to find all the occurrences of white words
+ * (words containing periods such as "Mr.") in one pass over the input.
+ * <p>
+ * States are stored in flat buffers. The transitions of a state are sorted by
+ * label and looked up with binary search.
+ * <p>
+ * An automaton can be written to a binary file with {@link #write(OutputStream)} and
+ * loaded with {@link #load(Path)}, which memory-maps the file read-only instead of
+ * building the automaton on the heap. The file layout is a header of six little endian
+ * ints (magic, version, state count, transition count, overlapping word count and
+ * maximum word length) followed by the transition offsets, transition targets,
+ * failures, outputs, word lengths and overlap indices as ints, and the transition
+ * labels as chars. The structure is checked when the file is loaded.
+ */
+public final class WhiteWordAutomaton {
+    private static final int ROOT = 0;
+    private static final int[] NO_OVERLAPS = new int[0];
+    private static final int MAGIC = 0x454f5357; // "EOSW"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 6 * Integer.BYTES;
+
+    private final IntBuffer transitionOffsets;
+    private final CharBuffer transitionLabels;
+    private final IntBuffer transitionTargets;
+    private final IntBuffer failures;
+    // nearest state on the failure chain which completes a word, ROOT when none
+    private final IntBuffer outputs;
+    // length of the word completed by each state, 0 when the state does not complete a word
+    private final IntBuffer wordLengths;
+    // index into the scan-local table of last match ends for words which can overlap themselves
+    private final IntBuffer overlapIndices;
+    private final int overlappingWordCount;
+    private final int maxWordLength;
+
+    /**
+     * Constructor.
+     *
+     * @param words white words
+     */
+    public WhiteWordAutomaton(Collection<String> words) {
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        Set<Integer> overlappingWords = new HashSet<>();
+        trie.add(new TreeMap<>());
+        lengths.add(0);
+        int maxLength = 0;
+        for (String word : words) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            int state = ROOT;
+            for (int i = 0; i < word.length(); i++) {
+                Integer next = trie.get(state).get(word.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    lengths.add(0);
+                    trie.get(state).put(word.charAt(i), next);
+                }
+                state = next;
+            }
+            lengths.set(state, word.length());
+            if (hasBorder(word)) {
+                overlappingWords.add(state);
+            }
+            maxLength = Math.max(maxLength, word.length());
+        }
+        this.maxWordLength = maxLength;
+
+        int stateCount = trie.size();
+        int[] offsetArray = new int[stateCount + 1];
+        char[] labelArray = new char[stateCount - 1];
+        int[] targetArray = new int[stateCount - 1];
+        int[] lengthArray = new int[stateCount];
+        int transition = 0;
+        for (int state = 0; state < stateCount; state++) {
+            offsetArray[state] = transition;
+            for (Map.Entry<Character, Integer> entry : trie.get(state).entrySet()) {
+                labelArray[transition] = entry.getKey();
+                targetArray[transition] = entry.getValue();
+                transition++;
+            }
+            lengthArray[state] = lengths.get(state);
+        }
+        offsetArray[stateCount] = transition;
+        this.transitionOffsets = IntBuffer.wrap(offsetArray);
+        this.transitionLabels = CharBuffer.wrap(labelArray);
+        this.transitionTargets = IntBuffer.wrap(targetArray);
+        this.wordLengths = IntBuffer.wrap(lengthArray);
+
+        int[] failureArray = new int[stateCount];
+        int[] outputArray = new int[stateCount];
+        this.failures = IntBuffer.wrap(failureArray);
+        this.outputs = IntBuffer.wrap(outputArray);
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int i = offsetArray[ROOT]; i < offsetArray[ROOT + 1]; i++) {
+            queue.add(targetArray[i]);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int i = offsetArray[state]; i < offsetArray[state + 1]; i++) {
+                int child = targetArray[i];
+                failureArray[child] = nextState(failureArray[state], labelArray[i]);
+                outputArray[child] = lengthArray[failureArray[child]] > 0
+                        ? failureArray[child] : outputArray[failureArray[child]];
+                queue.add(child);
+            }
+        }
+
+        int[] overlapArray = new int[stateCount];
+        int overlapping = 0;
+        for (int state = 0; state < stateCount; state++) {
+            overlapArray[state] = -1;
+            if (overlappingWords.contains(state)) {
+                overlapArray[state] = overlapping++;
+            }
+        }
+        this.overlapIndices = IntBuffer.wrap(overlapArray);
+        this.overlappingWordCount = overlapping;
+    }
+
+    private WhiteWordAutomaton(ByteBuffer bytes, int stateCount, int transitionCount,
+                               int overlappingWordCount, int maxWordLength) {
+        int position = HEADER_SIZE;
+        this.transitionOffsets = intSlice(bytes, position, stateCount + 1);
+        position += (stateCount + 1) * Integer.BYTES;
+        this.transitionTargets = intSlice(bytes, position, transitionCount);
+        position += transitionCount * Integer.BYTES;
+        this.failures = intSlice(bytes, position, stateCount);
+        position += stateCount * Integer.BYTES;
+        this.outputs = intSlice(bytes, position, stateCount);
+        position += stateCount * Integer.BYTES;
+        this.wordLengths = intSlice(bytes, position, stateCount);
+        position += stateCount * Integer.BYTES;
+        this.overlapIndices = intSlice(bytes, position, stateCount);
+        position += stateCount * Integer.BYTES;
+        ByteBuffer labels = bytes.duplicate();
+        labels.position(position).limit(position + transitionCount * Character.BYTES);
+        this.transitionLabels = labels.slice().order(ByteOrder.LITTLE_ENDIAN).asCharBuffer();
+        this.overlappingWordCount = overlappingWordCount;
+        this.maxWordLength = maxWordLength;
+    }
+
+    /**
+     * Load an automaton written by {@link #write(OutputStream)}, memory-mapping the file
+     * read-only. The file is shared through the page cache by all the processes loading it.
+     *
+     * @param file automaton file
+     * @return automaton backed by the mapped file
+     * @throws IOException when the file can not be read or is not a valid automaton file
+     */
+    public static WhiteWordAutomaton load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Read an automaton written by {@link #write(OutputStream)}. The automaton is backed
+     * by the given buffer, which should not be modified afterwards.
+     *
+     * @param bytes automaton data
+     * @return automaton backed by the buffer
+     * @throws IOException when the data is not a valid automaton
+     */
+    public static WhiteWordAutomaton read(ByteBuffer bytes) throws IOException {
+        ByteBuffer data = bytes.slice().order(ByteOrder.LITTLE_ENDIAN);
+        if (data.capacity() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+            throw new IOException("Not a white word automaton");
+        }
+        if (data.getInt(4) != VERSION) {
+            throw new IOException("Unsupported white word automaton version: " + data.getInt(4));
+        }
+        int stateCount = data.getInt(8);
+        int transitionCount = data.getInt(12);
+        int overlappingWordCount = data.getInt(16);
+        int maxWordLength = data.getInt(20);
+        if (stateCount < 1 || transitionCount != stateCount - 1 || overlappingWordCount < 0
+                || maxWordLength < 0 || data.capacity() != dataSize(stateCount, transitionCount)) {
+            throw new IOException("Corrupted white word automaton");
+        }
+        WhiteWordAutomaton automaton = new WhiteWordAutomaton(data, stateCount, transitionCount,
+                overlappingWordCount, maxWordLength);
+        if (!automaton.isValid()) {
+            throw new IOException("Corrupted white word automaton");
+        }
+        return automaton;
+    }
+
+    /**
+     * Check the structure read from a file, so that a corrupted file fails to load instead
+     * of making the scans loop forever or go out of the buffers. The transitions should
+     * form a tree, and the failure and output of a state should be shallower than it.
+     */
+    private boolean isValid() {
+        int stateCount = failures.limit();
+        int transitionCount = transitionTargets.limit();
+        if (transitionOffsets.get(ROOT) != 0 || transitionOffsets.get(stateCount) != transitionCount) {
+            return false;
+        }
+        for (int state = 0; state < stateCount; state++) {
+            int begin = transitionOffsets.get(state);
+            int end = transitionOffsets.get(state + 1);
+            if (end < begin || end > transitionCount) {
+                return false;
+            }
+            for (int i = begin + 1; i < end; i++) {
+                if (transitionLabels.get(i - 1) >= transitionLabels.get(i)) {
+                    return false;
+                }
+            }
+        }
+
+        int[] depths = new int[stateCount];
+        Arrays.fill(depths, -1);
+        depths[ROOT] = 0;
+        int[] queue = new int[stateCount];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = ROOT;
+        while (head < tail) {
+            int state = queue[head++];
+            for (int i = transitionOffsets.get(state); i < transitionOffsets.get(state + 1); i++) {
+                int child = transitionTargets.get(i);
+                if (child <= ROOT || child >= stateCount || depths[child] >= 0) {
+                    return false;
+                }
+                depths[child] = depths[state] + 1;
+                queue[tail++] = child;
+            }
+        }
+        if (tail != stateCount) {
+            return false;
+        }
+
+        if (failures.get(ROOT) != ROOT || outputs.get(ROOT) != ROOT || wordLengths.get(ROOT) != 0) {
+            return false;
+        }
+        for (int state = 0; state < stateCount; state++) {
+            int failure = failures.get(state);
+            int output = outputs.get(state);
+            int wordLength = wordLengths.get(state);
+            int overlapIndex = overlapIndices.get(state);
+            if (state != ROOT && (failure < 0 || failure >= stateCount || depths[failure] >= depths[state])) {
+                return false;
+            }
+            if (output < 0 || output >= stateCount
+                    || (output != ROOT && (depths[output] >= depths[state] || wordLengths.get(output) == 0))) {
+                return false;
+            }
+            if (wordLength != 0 && (wordLength != depths[state] || wordLength > maxWordLength)) {
+                return false;
+            }
+            if (overlapIndex < -1 || overlapIndex >= overlappingWordCount) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Write the automaton in the binary format read by {@link #load(Path)}.
+     *
+     * @param out output stream
+     * @throws IOException when the automaton can not be written
+     */
+    public void write(OutputStream out) throws IOException {
+        int stateCount = failures.limit();
+        int transitionCount = transitionTargets.limit();
+        ByteBuffer data = ByteBuffer.allocate((int) dataSize(stateCount, transitionCount))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        data.putInt(MAGIC);
+        data.putInt(VERSION);
+        data.putInt(stateCount);
+        data.putInt(transitionCount);
+        data.putInt(overlappingWordCount);
+        data.putInt(maxWordLength);
+        for (IntBuffer buffer : new IntBuffer[]{transitionOffsets, transitionTargets,
+                failures, outputs, wordLengths, overlapIndices}) {
+            for (int i = 0; i < buffer.limit(); i++) {
+                data.putInt(buffer.get(i));
+            }
+        }
+        for (int i = 0; i < transitionCount; i++) {
+            data.putChar(transitionLabels.get(i));
+        }
+        out.write(data.array());
+        out.flush();
+    }
+
+    private static long dataSize(int stateCount, int transitionCount) {
+        return HEADER_SIZE + (stateCount * 5L + 1 + transitionCount) * Integer.BYTES
+                + (long) transitionCount * Character.BYTES;
+    }
+
+    private static IntBuffer intSlice(ByteBuffer bytes, int position, int length) {
+        ByteBuffer slice = bytes.duplicate();
+        slice.position(position).limit(position + length * Integer.BYTES);
+        return slice.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    /**
+     * Get the length of the longest white word.
+     *
+     * @return maximum length of the white words, 0 when there is no word
+     */
+    public int getMaxWordLength() {
+        return maxWordLength;
+    }
+
+    /**
+     * Detect whether a white word can overlap another occurrence of itself. The positions
+     * found for such a word depend on the occurrences before them, however far they are.
+     *
+     * @return true when a white word overlaps itself
+     */
+    public boolean hasOverlappingWords() {
+        return overlappingWordCount > 0;
+    }
+
+    /**
+     * Add the positions of all the characters covered by white words in the given string.
+     * <p>
+     * Occurrences of the same word do not overlap each other; the left most one wins
+     * as in repeated {@link String#indexOf(String, int)} calls.
+     *
+     * @param str       input string
+     * @param positions bit set to set the positions to
+     * @return number of the occurrences found
+     */
+    public int findPositions(CharSequence str, BitSet positions) {
+        return findPositions(str, 0, positions);
+    }
+
+    /**
+     * Add the positions of all the characters covered by white words starting at or after
+     * the given offset. The positions are the ones in the whole string.
+     *
+     * @param str       input string
+     * @param from      offset to start the search from
+     * @param positions bit set to set the positions to
+     * @return number of the occurrences found
+     */
+    public int findPositions(CharSequence str, int from, BitSet positions) {
+        int count = 0;
+        int[] lastEnds = overlappingWordCount == 0 ? NO_OVERLAPS : new int[overlappingWordCount];
+        int state = ROOT;
+        for (int i = from; i < str.length(); i++) {
+            state = nextState(state, str.charAt(i));
+            int word = wordLengths.get(state) > 0 ? state : outputs.get(state);
+            for (; word != ROOT; word = outputs.get(word)) {
+                int start = i - wordLengths.get(word) + 1;
+                int overlapIndex = overlapIndices.get(word);
+                if (overlapIndex >= 0) {
+                    if (start < lastEnds[overlapIndex]) {
+                        continue;
+                    }
+                    lastEnds[overlapIndex] = i + 1;
+                }
+                positions.set(start, i + 1);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Detect whether any occurrence of a white word covers the specified position.
+     * Only the characters within the maximum word length around the position are scanned.
+     *
+     * @param str      input string
+     * @param position position to check
+     * @return true when an occurrence of a white word covers the position
+     */
+    public boolean covers(CharSequence str, int position) {
+        int end = Math.min(str.length(), position + maxWordLength);
+        int state = ROOT;
+        for (int i = Math.max(0, position - maxWordLength + 1); i < end; i++) {
+            state = nextState(state, str.charAt(i));
+            int word = wordLengths.get(state) > 0 ? state : outputs.get(state);
+            for (; word != ROOT; word = outputs.get(word)) {
+                if (i >= position && i - wordLengths.get(word) < position) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int nextState(int state, char c) {
+        while (true) {
+            int next = transition(state, c);
+            if (next >= 0) {
+                return next;
+            }
+            if (state == ROOT) {
+                return ROOT;
+            }
+            state = failures.get(state);
+        }
+    }
+
+    private int transition(int state, char c) {
+        int low = transitionOffsets.get(state);
+        int high = transitionOffsets.get(state + 1) - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char label = transitionLabels.get(middle);
+            if (label < c) {
+                low = middle + 1;
+            } else if (label > c) {
+                high = middle - 1;
+            } else {
+                return transitionTargets.get(middle);
+            }
+        }
+        return -1;
+    }
+
+    // whether the word has a proper suffix which is also its prefix, e.g. "a.a."
+    private static boolean hasBorder(String word) {
+        int[] prefixFunction = new int[word.length()];
+        for (int i = 1; i < word.length(); i++) {
+            int k = prefixFunction[i - 1];
+            while (k > 0 && word.charAt(i) != word.charAt(k)) {
+                k = prefixFunction[k - 1];
+            }
+            if (word.charAt(i) == word.charAt(k)) {
+                k++;
+            }
+            prefixFunction[i] = k;
+        }
+        return prefixFunction[word.length() - 1] > 0;
+    }
+}
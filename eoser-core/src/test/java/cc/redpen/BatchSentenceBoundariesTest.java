@@ -0,0 +1,98 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import cc.redpen.config.SymbolTable;
+import cc.redpen.util.Pair;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class BatchSentenceBoundariesTest {
+    private static String randomText(Random random, String[] atoms, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append(atoms[random.nextInt(atoms.length)]);
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testExtractBatch() {
+        SentenceExtractor extractor = new SentenceExtractor(new SymbolTable("en", Optional.<String>empty(), new ArrayList<>()));
+        BatchSentenceBoundaries boundaries = extractor.extractBatch(
+                new CharSequence[]{"This is a pen. That is", "", "Mr. Smith is here. Yes! Bye."});
+        assertEquals(3, boundaries.getTextCount());
+        assertEquals(4, boundaries.getSentenceCount());
+        assertEquals(1, boundaries.getSentenceCount(0));
+        assertEquals(0, boundaries.getSentenceCount(1));
+        assertEquals(3, boundaries.getSentenceCount(2));
+        assertEquals(1, boundaries.getFirstSentence(2));
+        assertEquals(14, boundaries.getRemainingPosition(0));
+        assertEquals(0, boundaries.getRemainingPosition(1));
+        assertEquals(28, boundaries.getRemainingPosition(2));
+        assertEquals(0, boundaries.getStartPosition(1));
+        assertEquals(18, boundaries.getEndPosition(1));
+        assertEquals(18, boundaries.getStartPosition(2));
+    }
+
+    @Test
+    public void testSameAsExtractOfEachText() {
+        String[][] configs = {{"en", ""}, {"ja", ""}, {"ja", "zenkaku2"}, {"ja", "hankaku"}};
+        String[] atoms = {"a", "b", " ", "\n", ".", "?", "!", "'", "\"", "。", "？", "．", "”", "あ",
+                "Mr.", "a.m.", "U.S.A.", "Co., Ltd."};
+        Random random = new Random(0);
+        BatchSentenceBoundaries boundaries = new BatchSentenceBoundaries();
+        for (String[] config : configs) {
+            for (TerminatorEngine engine : TerminatorEngine.values()) {
+                SentenceExtractor extractor = new SentenceExtractor(
+                        new SymbolTable(config[0], Optional.of(config[1]), new ArrayList<>()), engine);
+                List<String> texts = new ArrayList<>();
+                for (int i = 0; i < 200; i++) {
+                    texts.add(randomText(random, atoms, random.nextInt(40)));
+                }
+                extractor.extractBatch(texts, boundaries);
+                assertEquals(texts.size(), boundaries.getTextCount());
+                int sentence = 0;
+                for (int i = 0; i < texts.size(); i++) {
+                    List<Pair<Integer, Integer>> expected = new ArrayList<>();
+                    int remaining = extractor.extract(texts.get(i), expected);
+                    assertEquals(texts.get(i), expected.size(), boundaries.getSentenceCount(i));
+                    assertEquals(texts.get(i), remaining, boundaries.getRemainingPosition(i));
+                    for (Pair<Integer, Integer> position : expected) {
+                        assertEquals(texts.get(i), Arrays.asList(position.first, position.second),
+                                Arrays.asList(boundaries.getStartPosition(sentence), boundaries.getEndPosition(sentence)));
+                        sentence++;
+                    }
+                }
+                assertEquals(sentence, boundaries.getSentenceCount());
+            }
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testTextOutOfBounds() {
+        new BatchSentenceBoundaries().getSentenceCount(0);
+    }
+}
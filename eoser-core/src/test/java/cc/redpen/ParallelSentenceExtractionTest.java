@@ -0,0 +1,155 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import cc.redpen.config.SymbolTable;
+import cc.redpen.util.BoundaryDisambiguator;
+import cc.redpen.util.Pair;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelSentenceExtractionTest {
+    private static String randomText(Random random, String[] atoms, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append(atoms[random.nextInt(atoms.length)]);
+        }
+        return sb.toString();
+    }
+
+    private static List<String> toStrings(List<Pair<Integer, Integer>> positions) {
+        List<String> strings = new ArrayList<>();
+        for (Pair<Integer, Integer> position : positions) {
+            strings.add(position.first + "-" + position.second);
+        }
+        return strings;
+    }
+
+    @Test
+    public void testHardBoundary() {
+        SentenceExtractor extractor = new SentenceExtractor(new SymbolTable("en", Optional.<String>empty(), new ArrayList<>()));
+        String input = "This is a pen.\nHe is Mr.\nSmith\n";
+        assertTrue(extractor.isHardBoundary(input, input.indexOf('\n')));
+        assertFalse(extractor.isHardBoundary(input, input.indexOf("Mr.") + 3));
+        assertFalse(extractor.isHardBoundary(input, input.length() - 1));
+    }
+
+    @Test
+    public void testSameSentencesAsSerialExtraction() {
+        String[][] configs = {{"en", ""}, {"ja", ""}, {"ja", "zenkaku2"}, {"ja", "hankaku"}};
+        String[] atoms = {"a", "b", " ", "\n", "\n", ".", "?", "!", "'", "\"", "。", "？", "．", "”", "あ",
+                "Mr.", "a.m.", "U.S.A.", ".\n", "。\n", "．\n", "?\n"};
+        Random random = new Random(0);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (String[] config : configs) {
+                for (TerminatorEngine engine : TerminatorEngine.values()) {
+                    SentenceExtractor extractor = new SentenceExtractor(
+                            new SymbolTable(config[0], Optional.of(config[1]), new ArrayList<>()),
+                            Arrays.asList("Mr.", "a.m.\n", "U.S.A."), engine);
+                    for (int i = 0; i < 300; i++) {
+                        String input = randomText(random, atoms, random.nextInt(200));
+                        List<Pair<Integer, Integer>> expected = new ArrayList<>();
+                        int expectedRemaining = extractor.extract(input, expected);
+                        for (int pieceLength : new int[]{1, 8, 64}) {
+                            List<Pair<Integer, Integer>> actual = new ArrayList<>();
+                            int remaining = extractor.extractInParallel(input, actual, pool, pieceLength);
+                            assertEquals(input, toStrings(expected), toStrings(actual));
+                            assertEquals(input, expectedRemaining, remaining);
+                        }
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testExtractLargeInputInParallel() {
+        SentenceExtractor extractor = new SentenceExtractor(new SymbolTable("en", Optional.<String>empty(), new ArrayList<>()));
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            sb.append("He met Mr. Smith at 10 a.m. yesterday.\nIt was fine");
+            sb.append(i % 2 == 0 ? ". " : ".\n");
+        }
+        String input = sb.toString();
+        List<Pair<Integer, Integer>> expected = new ArrayList<>();
+        extractor.extract(input, expected);
+        List<Pair<Integer, Integer>> actual = new ArrayList<>();
+        extractor.extractInParallel(input, actual);
+        assertEquals(toStrings(expected), toStrings(actual));
+    }
+
+    /**
+     * Disambiguator rejecting the sentence ends with a '#' from six to four characters
+     * before them, which is cut off from the ends just after the start of a piece.
+     */
+    private static class SharpDisambiguator implements BoundaryDisambiguator {
+        @Override
+        public int resolve(CharSequence str, int endPosition) {
+            for (int i = Math.max(0, endPosition - 6); i < endPosition - 3; i++) {
+                if (str.charAt(i) == '#') {
+                    return -1;
+                }
+            }
+            return endPosition;
+        }
+
+        @Override
+        public int getLookahead() {
+            return 16;
+        }
+    }
+
+    @Test
+    public void testSameSentencesAsSerialExtractionWithDisambiguator() {
+        SentenceExtractor extractor = SentenceExtractor.builder(
+                new SymbolTable("en", Optional.<String>empty(), new ArrayList<>()))
+                .disambiguator(new SharpDisambiguator())
+                .build();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            sb.append("Some filler words here #x.\nab. More filler words without stops in this part.\n");
+        }
+        String input = sb.toString();
+        List<Pair<Integer, Integer>> expected = new ArrayList<>();
+        int expectedRemaining = extractor.extract(input, expected);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int pieceLength : new int[]{1, 50, 500}) {
+                List<Pair<Integer, Integer>> actual = new ArrayList<>();
+                int remaining = extractor.extractInParallel(input, actual, pool, pieceLength);
+                assertEquals(toStrings(expected), toStrings(actual));
+                assertEquals(expectedRemaining, remaining);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
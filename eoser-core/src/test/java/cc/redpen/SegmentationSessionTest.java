@@ -0,0 +1,105 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import cc.redpen.config.SymbolTable;
+import cc.redpen.util.Pair;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SegmentationSessionTest {
+    private static SentenceExtractor createExtractor(String lang) {
+        return new SentenceExtractor(new SymbolTable(lang, Optional.<String>empty(), new ArrayList<>()));
+    }
+
+    @Test
+    public void testNext() {
+        SegmentationSession session = createExtractor("en").newSession();
+        session.reset("This is a pen. Mr. Smith is here! And");
+        assertEquals(14, session.next());
+        assertEquals(14, session.getPosition());
+        assertEquals(33, session.next());
+        assertEquals(-1, session.next());
+        assertEquals(33, session.getPosition());
+    }
+
+    @Test
+    public void testResetToNewInput() {
+        SentenceExtractor extractor = createExtractor("ja");
+        SegmentationSession session = extractor.newSession();
+        String[] texts = {"私はペンではない。私は人間です。", "", "これは？あれ", "私はペンではない。"};
+        for (String text : texts) {
+            List<Pair<Integer, Integer>> expected = new ArrayList<>();
+            int remaining = extractor.extract(text, expected);
+            SentenceBoundaries boundaries = session.reset(text).extract();
+            assertEquals(text, session.getText());
+            assertEquals(expected.size(), boundaries.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).first.intValue(), boundaries.getStartPosition(i));
+                assertEquals(expected.get(i).second.intValue(), boundaries.getEndPosition(i));
+            }
+            assertEquals(remaining, session.getPosition());
+        }
+    }
+
+    @Test
+    public void testExtractFromCurrentPosition() {
+        SegmentationSession session = createExtractor("en").newSession();
+        session.reset("One. Two. Three");
+        assertEquals(4, session.next());
+        SentenceBoundaries boundaries = session.extract();
+        assertEquals(1, boundaries.size());
+        assertEquals(4, boundaries.getStartPosition(0));
+        assertEquals(9, boundaries.getEndPosition(0));
+        assertEquals(9, session.getPosition());
+    }
+
+    @Test
+    public void testNoAllocationPerDocument() {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled());
+
+        for (TerminatorEngine engine : TerminatorEngine.values()) {
+            SentenceExtractor extractor = new SentenceExtractor(
+                    new SymbolTable("en", Optional.<String>empty(), new ArrayList<>()), engine);
+            SegmentationSession session = extractor.newSession();
+            String[] documents = {"This is a pen. Mr. Smith is here! And", "Is it? Yes. At 10 a.m. we met."};
+            for (int i = 0; i < 1000; i++) { // warm up
+                session.reset(documents[i % 2]).extract();
+            }
+            long threadId = Thread.currentThread().getId();
+            long before = bean.getThreadAllocatedBytes(threadId);
+            int sentences = 0;
+            for (int i = 0; i < 10000; i++) {
+                sentences += session.reset(documents[i % 2]).extract().size();
+            }
+            long allocated = bean.getThreadAllocatedBytes(threadId) - before;
+            assertEquals(25000, sentences);
+            assertTrue(engine + ": " + allocated + " bytes", allocated < 10000);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import cc.redpen.config.SymbolTable;
+import cc.redpen.model.SentenceView;
+import cc.redpen.util.Pair;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SentenceBoundariesTest {
+    private static SentenceExtractor createExtractor(String lang) {
+        return new SentenceExtractor(new SymbolTable(lang, Optional.<String>empty(), new ArrayList<>()));
+    }
+
+    @Test
+    public void testSameBoundariesAsPairs() {
+        SentenceExtractor extractor = createExtractor("en");
+        String input = "this is a pen. that is Mr. Smith! is it? and";
+        List<Pair<Integer, Integer>> pairs = new ArrayList<>();
+        int expectedRemaining = extractor.extract(input, pairs);
+        SentenceBoundaries boundaries = new SentenceBoundaries(1);
+        assertEquals(expectedRemaining, extractor.extract(input, boundaries));
+        assertEquals(pairs.size(), boundaries.size());
+        for (int i = 0; i < pairs.size(); i++) {
+            assertEquals(pairs.get(i).first.intValue(), boundaries.getStartPosition(i));
+            assertEquals(pairs.get(i).second.intValue(), boundaries.getEndPosition(i));
+        }
+    }
+
+    @Test
+    public void testReuseAfterClear() {
+        SentenceExtractor extractor = createExtractor("ja");
+        SentenceBoundaries boundaries = new SentenceBoundaries();
+        extractor.extract("私はペンではない。私は人間です。", boundaries);
+        assertEquals(2, boundaries.size());
+        boundaries.clear();
+        assertEquals(0, boundaries.size());
+        assertEquals(4, extractor.extract(new StringBuilder("これは？あれ"), boundaries));
+        assertEquals(1, boundaries.size());
+        assertEquals(0, boundaries.getStartPosition(0));
+        assertEquals(4, boundaries.getEndPosition(0));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexOutOfBounds() {
+        SentenceBoundaries boundaries = new SentenceBoundaries();
+        boundaries.accept(0, 1);
+        boundaries.getEndPosition(1);
+    }
+
+    @Test
+    public void testViews() {
+        SentenceExtractor extractor = createExtractor("en");
+        String input = "this is a pen. that is Mr. Smith! and";
+        SentenceBoundaries boundaries = new SentenceBoundaries();
+        extractor.extract(input, boundaries);
+        List<SentenceView> views = boundaries.toViews(input);
+        boundaries.clear();
+        assertEquals(2, views.size());
+        assertEquals("this is a pen.", views.get(0).getContent());
+        assertEquals(" that is Mr. Smith!", views.get(1).getContent());
+        assertEquals(14, views.get(1).getStartPosition());
+    }
+
+    @Test
+    public void testViewsKeepOffsetsOnly() {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled());
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            sb.append("This is a pen. Is it? ");
+        }
+        String input = sb.toString();
+        SentenceBoundaries boundaries = new SentenceBoundaries();
+        createExtractor("en").extract(input, boundaries);
+        long threadId = Thread.currentThread().getId();
+        long before = bean.getThreadAllocatedBytes(threadId);
+        List<SentenceView> views = boundaries.toViews(input);
+        long allocated = bean.getThreadAllocatedBytes(threadId) - before;
+        assertEquals(40000, views.size());
+        assertTrue(allocated + " bytes", allocated < views.size() * 16L);
+    }
+}
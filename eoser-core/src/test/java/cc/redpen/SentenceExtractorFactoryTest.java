@@ -0,0 +1,114 @@
+/**
+ * eoser: a sentence segmenter
+ * Copyright (c) 2014-2015 Takahiko Ito, Recruit Technologies Co., Ltd.
+ * and contributors (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import cc.redpen.config.Symbol;
+import cc.redpen.config.SymbolTable;
+import cc.redpen.config.SymbolType;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class SentenceExtractorFactoryTest {
+    private static SymbolTable createSymbolTable(String lang, String type) {
+        return new SymbolTable(lang, Optional.of(type), new ArrayList<>());
+    }
+
+    @Test
+    public void testSharedForEqualSymbolTables() {
+        SentenceExtractorFactory factory = new SentenceExtractorFactory();
+        SentenceExtractor extractor = factory.get(createSymbolTable("ja", "zenkaku2"));
+        assertSame(extractor, factory.get(createSymbolTable("ja", "zenkaku2")));
+        assertNotSame(extractor, factory.get(createSymbolTable("ja", "hankaku")));
+        assertNotSame(extractor, factory.get(createSymbolTable("ja", "zenkaku2"), TerminatorEngine.CHAR_TABLE));
+        assertEquals(1, factory.getHitCount());
+        assertEquals(3, factory.getMissCount());
+        assertEquals(3, factory.size());
+    }
+
+    @Test
+    public void testCustomSymbols() {
+        SentenceExtractorFactory factory = new SentenceExtractorFactory();
+        List<Symbol> customSymbols = Collections.singletonList(new Symbol(SymbolType.FULL_STOP, '.', "．"));
+        SentenceExtractor custom = factory.get(new SymbolTable("ja", Optional.empty(), customSymbols));
+        assertNotSame(custom, factory.get(createSymbolTable("ja", "")));
+        assertSame(custom, factory.get(new SymbolTable("ja", Optional.empty(), customSymbols)));
+        List<String> sentences = new ArrayList<>();
+        custom.extract("これはペンです. あれは", (start, end) -> sentences.add(start + "-" + end));
+        assertEquals(Collections.singletonList("0-8"), sentences);
+    }
+
+    @Test
+    public void testModifiedSymbolTableDoesNotAffectCache() {
+        SentenceExtractorFactory factory = new SentenceExtractorFactory();
+        SymbolTable symbolTable = createSymbolTable("en", "");
+        SentenceExtractor extractor = factory.get(symbolTable);
+        symbolTable.overrideSymbol(new Symbol(SymbolType.FULL_STOP, '。', ""));
+        assertNotSame(extractor, factory.get(symbolTable));
+        assertSame(extractor, factory.get(createSymbolTable("en", "")));
+    }
+
+    @Test
+    public void testEvictLeastRecentlyUsed() {
+        SentenceExtractorFactory factory = new SentenceExtractorFactory(2);
+        SentenceExtractor en = factory.get(createSymbolTable("en", ""));
+        SentenceExtractor ja = factory.get(createSymbolTable("ja", ""));
+        assertSame(en, factory.get(createSymbolTable("en", "")));
+        factory.get(createSymbolTable("ja", "hankaku"));
+        assertEquals(1, factory.getEvictionCount());
+        assertEquals(2, factory.size());
+        assertSame(en, factory.get(createSymbolTable("en", "")));
+        assertNotSame(ja, factory.get(createSymbolTable("ja", "")));
+        assertEquals(2, factory.getEvictionCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaximumSize() {
+        new SentenceExtractorFactory(0);
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        SentenceExtractorFactory factory = new SentenceExtractorFactory();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<SentenceExtractor>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futures.add(executor.submit(() -> factory.get(createSymbolTable("ja", ""))));
+            }
+            SentenceExtractor first = futures.get(0).get();
+            for (Future<SentenceExtractor> future : futures) {
+                assertSame(first, future.get());
+            }
+            assertEquals(100, factory.getHitCount() + factory.getMissCount());
+            assertEquals(1, factory.size());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
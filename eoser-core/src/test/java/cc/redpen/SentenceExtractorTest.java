@@ -22,9 +22,13 @@ import cc.redpen.model.Sentence;
 import cc.redpen.util.Pair;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 
@@ -62,4 +66,109 @@ public class SentenceExtractorTest {
         assertEquals(" that is a paper.", outputSentences.get(1).getContent());
         assertEquals(31, lastPosition);
     }
+
+    @Test
+    public void testExtractWithCustomWhiteWords() {
+        SentenceExtractor extractor = new SentenceExtractor(new SymbolTable("en", Optional.<String>empty(), new ArrayList<>()),
+                Arrays.asList("approx.", "genn.ai"));
+        final String input = "It costs approx. ten dollars. That is genn.ai product.";
+        List<Pair<Integer, Integer>> outputPositions = new ArrayList<>();
+        extractor.extract(input, outputPositions);
+        List<Sentence> outputSentences = createSentences(outputPositions, input);
+        assertEquals(2, outputSentences.size());
+        assertEquals("It costs approx. ten dollars.", outputSentences.get(0).getContent());
+        assertEquals(" That is genn.ai product.", outputSentences.get(1).getContent());
+    }
+
+    @Test
+    public void testCharTableEngineGivesSameSentences() {
+        String[] langs = {"en", "ja"};
+        String alphabet = "ab .?!'\"\n。？！”あ";
+        Random random = new Random(0);
+        for (String lang : langs) {
+            SymbolTable symbolTable = new SymbolTable(lang, Optional.<String>empty(), new ArrayList<>());
+            SentenceExtractor regexExtractor = new SentenceExtractor(symbolTable, TerminatorEngine.REGEX);
+            SentenceExtractor charTableExtractor = new SentenceExtractor(symbolTable, TerminatorEngine.CHAR_TABLE);
+            for (int i = 0; i < 1000; i++) {
+                StringBuilder sb = new StringBuilder("Mr. Smith");
+                for (int j = 0; j < 30; j++) {
+                    sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                String input = sb.toString();
+                List<Pair<Integer, Integer>> expected = new ArrayList<>();
+                List<Pair<Integer, Integer>> actual = new ArrayList<>();
+                assertEquals(regexExtractor.extract(input, expected), charTableExtractor.extract(input, actual));
+                assertEquals(createSentences(expected, input), createSentences(actual, input));
+            }
+        }
+    }
+
+    @Test
+    public void testExtractUtf8GivesSameSentences() {
+        String[] langs = {"en", "ja"};
+        String alphabet = "ab .?!'\"\n。？！”あé\uD83D\uDE00";
+        Random random = new Random(0);
+        for (String lang : langs) {
+            SymbolTable symbolTable = new SymbolTable(lang, Optional.<String>empty(), new ArrayList<>());
+            for (TerminatorEngine engine : TerminatorEngine.values()) {
+                SentenceExtractor extractor = new SentenceExtractor(symbolTable, engine);
+                for (int i = 0; i < 1000; i++) {
+                    StringBuilder sb = new StringBuilder("Mr. Smith");
+                    for (int j = 0; j < 30; j++) {
+                        int k = random.nextInt(alphabet.length() - 1);
+                        // keep the surrogate pair together
+                        sb.append(alphabet.charAt(k) == '\uD83D' ? alphabet.substring(k, k + 2) : alphabet.charAt(k));
+                    }
+                    String input = sb.toString();
+                    SentenceBoundaries expected = new SentenceBoundaries();
+                    int expectedRemaining = extractor.extract(input, expected);
+                    byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+                    ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 3);
+                    buffer.put(new byte[3]).put(bytes).flip().position(3);
+                    for (int n = 0; n < 2; n++) {
+                        SentenceBoundaries actual = new SentenceBoundaries();
+                        int actualRemaining = n == 0 ? extractor.extractUtf8(bytes, actual)
+                                : extractor.extractUtf8(buffer, actual);
+                        assertEquals(utf8Length(input, expectedRemaining), actualRemaining);
+                        assertEquals(expected.size(), actual.size());
+                        for (int s = 0; s < expected.size(); s++) {
+                            assertEquals(utf8Length(input, expected.getStartPosition(s)), actual.getStartPosition(s));
+                            assertEquals(utf8Length(input, expected.getEndPosition(s)), actual.getEndPosition(s));
+                        }
+                    }
+                    assertEquals(3, buffer.position());
+                }
+            }
+        }
+    }
+
+    private static int utf8Length(String input, int end) {
+        return input.substring(0, end).getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testExtractMalformedUtf8() {
+        SentenceExtractor extractor = new SentenceExtractor(new SymbolTable("ja", Optional.<String>empty(), new ArrayList<>()));
+        extractor.extractUtf8(new byte[]{'a', (byte) 0xe3, (byte) 0x80}, new SentenceBoundaries());
+    }
+
+    @Test
+    public void testExtractSentencesWithAbbreviations() {
+        SentenceExtractor extractor = new SentenceExtractor(new SymbolTable("en", Optional.<String>empty(), new ArrayList<>()));
+        StringBuilder input = new StringBuilder();
+        for (int i = 1; i <= 3; i++) {
+            input.append("Mr. Smith met Dr. Jones at 10 a.m. on Jan. ").append(i).append(". ");
+        }
+        List<Pair<Integer, Integer>> outputPositions = new ArrayList<>();
+        int lastPosition = extractor.extract(input.toString(), outputPositions);
+        // the positions found by the per-sentence lookups of the original implementation
+        assertEquals(3, outputPositions.size());
+        assertEquals(0, (int) outputPositions.get(0).first);
+        assertEquals(45, (int) outputPositions.get(0).second);
+        assertEquals(45, (int) outputPositions.get(1).first);
+        assertEquals(91, (int) outputPositions.get(1).second);
+        assertEquals(91, (int) outputPositions.get(2).first);
+        assertEquals(137, (int) outputPositions.get(2).second);
+        assertEquals(137, lastPosition);
+    }
 }
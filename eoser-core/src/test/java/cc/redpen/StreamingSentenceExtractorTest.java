@@ -0,0 +1,180 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen;
+
+import cc.redpen.config.SymbolTable;
+import cc.redpen.util.Pair;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingSentenceExtractorTest {
+    private static class RecordingHandler implements SentenceHandler {
+        private final List<String> sentences = new ArrayList<>();
+        private String remaining;
+        private long remainingOffset = -1;
+
+        @Override
+        public void sentence(String sentence, long startOffset, long endOffset) {
+            sentences.add(startOffset + "-" + endOffset + ":" + sentence);
+        }
+
+        @Override
+        public void remaining(String remaining, long startOffset) {
+            this.remaining = remaining;
+            this.remainingOffset = startOffset;
+        }
+    }
+
+    private static List<String> extractWhole(SentenceExtractor extractor, String input) {
+        List<Pair<Integer, Integer>> positions = new ArrayList<>();
+        extractor.extract(input, positions);
+        List<String> sentences = new ArrayList<>();
+        for (Pair<Integer, Integer> position : positions) {
+            sentences.add(position.first + "-" + position.second + ":"
+                    + input.substring(position.first, position.second));
+        }
+        return sentences;
+    }
+
+    private static String randomText(Random random, String[] atoms, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append(atoms[random.nextInt(atoms.length)]);
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testReadSentences() throws IOException {
+        SentenceExtractor extractor = new SentenceExtractor(new SymbolTable("en", Optional.<String>empty(), new ArrayList<>()));
+        RecordingHandler handler = new RecordingHandler();
+        StreamingSentenceExtractor streaming = new StreamingSentenceExtractor(extractor, handler, 4);
+        long remainingOffset = streaming.read(new StringReader("this is a pen. that is Mr. Smith. and"));
+        assertEquals(2, handler.sentences.size());
+        assertEquals("0-14:this is a pen.", handler.sentences.get(0));
+        assertEquals("14-33: that is Mr. Smith.", handler.sentences.get(1));
+        assertEquals(" and", handler.remaining);
+        assertEquals(33, remainingOffset);
+        assertEquals(33, handler.remainingOffset);
+    }
+
+    @Test
+    public void testSameSentencesAsWholeInput() throws IOException {
+        String[][] configs = {{"en", ""}, {"ja", ""}, {"ja", "zenkaku2"}, {"ja", "hankaku"}};
+        String[] atoms = {"a", "b", " ", "\n", ".", "?", "!", "'", "\"", "。", "？", "．", "”", "あ",
+                "Mr.", "a.m.", "U.S.A.", "Co., Ltd."};
+        Random random = new Random(0);
+        for (String[] config : configs) {
+            SentenceExtractor extractor = new SentenceExtractor(
+                    new SymbolTable(config[0], Optional.of(config[1]), new ArrayList<>()));
+            for (int i = 0; i < 300; i++) {
+                String input = randomText(random, atoms, random.nextInt(60));
+                List<Pair<Integer, Integer>> positions = new ArrayList<>();
+                int expectedRemaining = extractor.extract(input, positions);
+                for (int chunkSize : new int[]{1, 3, 16}) {
+                    RecordingHandler handler = new RecordingHandler();
+                    long remaining = new StreamingSentenceExtractor(extractor, handler, chunkSize)
+                            .read(new StringReader(input));
+                    assertEquals(input, extractWhole(extractor, input), handler.sentences);
+                    assertEquals(expectedRemaining, remaining);
+                    assertEquals(input.substring(expectedRemaining), handler.remaining);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReadChannel() throws IOException {
+        SentenceExtractor extractor = new SentenceExtractor(new SymbolTable("ja", Optional.<String>empty(), new ArrayList<>()));
+        String input = "私はペンではない。私は人間です。これは？";
+        RecordingHandler handler = new RecordingHandler();
+        long remaining = new StreamingSentenceExtractor(extractor, handler, 1).read(
+                Channels.newChannel(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))),
+                StandardCharsets.UTF_8);
+        assertEquals(extractWhole(extractor, input), handler.sentences);
+        assertEquals(input.length(), remaining);
+        assertEquals("", handler.remaining);
+    }
+
+    @Test
+    public void testBufferIsBoundedBySentenceLength() {
+        SentenceExtractor extractor = new SentenceExtractor(new SymbolTable("en", Optional.<String>empty(), new ArrayList<>()));
+        RecordingHandler handler = new RecordingHandler();
+        StreamingSentenceExtractor streaming = new StreamingSentenceExtractor(extractor, handler);
+        int maxBuffered = 0;
+        for (int i = 0; i < 10000; i++) {
+            streaming.append("He met Mr. Smith at 10 a.m. yesterday. ");
+            maxBuffered = Math.max(maxBuffered, streaming.getBufferedLength());
+        }
+        streaming.finish();
+        assertEquals(10000, handler.sentences.size());
+        assertTrue("buffered " + maxBuffered + " characters", maxBuffered < 200);
+    }
+
+    @Test
+    public void testScanIsLinearWithoutSentenceEnds() {
+        SentenceExtractor extractor = new SentenceExtractor(new SymbolTable("en", Optional.<String>empty(), new ArrayList<>()));
+        char[] chunk = new char[StreamingSentenceExtractor.DEFAULT_CHUNK_SIZE];
+        Arrays.fill(chunk, 'a');
+        for (int length : new int[]{1 << 20, 2 << 20, 4 << 20}) {
+            RecordingHandler handler = new RecordingHandler();
+            StreamingSentenceExtractor streaming = new StreamingSentenceExtractor(extractor, handler);
+            for (int i = 0; i < length; i += chunk.length) {
+                streaming.append(chunk, 0, chunk.length);
+            }
+            assertEquals(0, streaming.finish());
+            assertEquals(0, handler.sentences.size());
+            assertEquals(length, handler.remaining.length());
+            // each scan resumes near the end of the previous one
+            assertTrue("scanned " + streaming.getScannedCharacters() + " characters",
+                    streaming.getScannedCharacters() <= 2L * length);
+        }
+    }
+
+    @Test
+    public void testScanIsLinearWithSmallChunks() {
+        SentenceExtractor extractor = new SentenceExtractor(new SymbolTable("en", Optional.<String>empty(), new ArrayList<>()));
+        RecordingHandler handler = new RecordingHandler();
+        StreamingSentenceExtractor streaming = new StreamingSentenceExtractor(extractor, handler, 1);
+        int length = 100000;
+        StringBuilder input = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            // periods followed by letters do not end sentences
+            String chunk = i % 1000 == 999 ? "." : "a";
+            input.append(chunk);
+            streaming.append(chunk);
+        }
+        streaming.finish();
+        assertEquals(extractWhole(extractor, input.toString()), handler.sentences);
+        assertTrue("scanned " + streaming.getScannedCharacters() + " characters",
+                streaming.getScannedCharacters() <= 5L * length);
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.config;
+
+import cc.redpen.EOSerException;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+
+public class ConfigurationLoaderTest {
+    private static final String CONFIG = "<symbol-conf lang=\"ja\"><symbols>"
+            + "<symbol name=\"FULL_STOP\" value=\"．\" invalid-chars=\"。.\"/>"
+            + "<symbol name=\"COMMA\" value=\"，\" invalid-chars=\"、,\" after-space=\"false\"/>"
+            + "<symbol name=\"LEFT_DOUBLE_QUOTATION_MARK\" value=\"&quot;\" before-space=\"true\"/>"
+            + "</symbols></symbol-conf>";
+
+    private static final List<Symbol> SYMBOLS = Arrays.asList(
+            new Symbol(SymbolType.FULL_STOP, '．', "。."),
+            new Symbol(SymbolType.COMMA, '，', "、,"),
+            new Symbol(SymbolType.LEFT_DOUBLE_QUOTATION_MARK, '"', "", true, false));
+
+    private static ByteArrayInputStream toStream(String config) {
+        return new ByteArrayInputStream(config.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testLoadStreaming() throws EOSerException {
+        assertEquals(SYMBOLS, new ConfigurationLoader().loadStreaming(toStream(CONFIG)));
+        assertEquals(new ConfigurationLoader().loadFromString(CONFIG),
+                new ConfigurationLoader().loadStreaming(toStream(CONFIG)));
+    }
+
+    @Test
+    public void testLoadStreamingWithoutSymbols() throws EOSerException {
+        assertEquals(Collections.emptyList(),
+                new ConfigurationLoader().loadStreaming(toStream("<symbol-conf lang=\"en\"><symbols/></symbol-conf>")));
+    }
+
+    @Test
+    public void testLoadAll() throws EOSerException {
+        String configs = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<symbol-confs>\n"
+                + "  <symbol-conf name=\"tenant1\" lang=\"ja\">\n    <symbols>\n"
+                + "      <symbol name=\"FULL_STOP\" value=\"．\" invalid-chars=\"。.\"/>\n"
+                + "    </symbols>\n  </symbol-conf>\n"
+                + "  <symbol-conf name=\"tenant2\">\n    <symbols/>\n  </symbol-conf>\n"
+                + "</symbol-confs>\n";
+        List<SymbolConfiguration> configurations = new ConfigurationLoader().loadAll(toStream(configs));
+        assertEquals(Arrays.asList(
+                new SymbolConfiguration("ja", Optional.of("tenant1"),
+                        Collections.singletonList(new Symbol(SymbolType.FULL_STOP, '．', "。."))),
+                new SymbolConfiguration("en", Optional.of("tenant2"), Collections.<Symbol>emptyList())),
+                configurations);
+        assertEquals('．', configurations.get(0).toSymbolTable().getValueOrFallbackToDefault(SymbolType.FULL_STOP));
+    }
+
+    @Test(expected = EOSerException.class)
+    public void testLoadStreamingInvalidValue() throws EOSerException {
+        new ConfigurationLoader().loadStreaming(toStream(
+                "<symbol-conf><symbols><symbol name=\"COMMA\" value=\"ab\"/></symbols></symbol-conf>"));
+    }
+
+    @Test(expected = EOSerException.class)
+    public void testLoadStreamingMalformed() throws EOSerException {
+        new ConfigurationLoader().loadStreaming(toStream("<symbol-conf><symbols>"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testLoadStreamingWithoutSymbolConf() throws EOSerException {
+        new ConfigurationLoader().loadStreaming(toStream("<config/>"));
+    }
+}
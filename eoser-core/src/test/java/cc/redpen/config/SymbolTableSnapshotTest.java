@@ -0,0 +1,121 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.config;
+
+import cc.redpen.SentenceExtractor;
+import cc.redpen.TerminatorEngine;
+import cc.redpen.util.Pair;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class SymbolTableSnapshotTest {
+    private static SymbolTableSnapshot writeAndRead(SymbolTableSnapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        snapshot.write(bytes);
+        return SymbolTableSnapshot.read(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        String[][] configs = {{"en", ""}, {"ja", ""}, {"ja", "zenkaku2"}, {"ja", "hankaku"}};
+        for (String[] config : configs) {
+            SymbolTable symbolTable = new SymbolTable(config[0], Optional.of(config[1]), new ArrayList<>());
+            SymbolTableSnapshot snapshot = SymbolTableSnapshot.of(symbolTable);
+            SymbolTableSnapshot restored = writeAndRead(snapshot);
+            assertEquals(symbolTable, restored.getSymbolTable());
+            assertArrayEquals(symbolTable.getFullStops(), restored.getFullStops());
+            assertArrayEquals(symbolTable.getRightQuotations(), restored.getRightQuotations());
+        }
+    }
+
+    @Test
+    public void testCustomSymbols() throws IOException {
+        List<Symbol> customSymbols = Collections.singletonList(
+                new Symbol(SymbolType.FULL_STOP, '．', "。.", true, false));
+        SymbolTable symbolTable = new SymbolTable("ja", Optional.empty(), customSymbols);
+        SymbolTableSnapshot restored = writeAndRead(SymbolTableSnapshot.of(symbolTable));
+        assertEquals(symbolTable, restored.getSymbolTable());
+        assertEquals(symbolTable.getSymbolByValue('。'), restored.getSymbolTable().getSymbolByValue('。'));
+        assertArrayEquals(new char[]{'．', '？', '！'}, restored.getFullStops());
+    }
+
+    @Test
+    public void testSnapshotIsNotAffectedByChanges() {
+        SymbolTable symbolTable = new SymbolTable("en", Optional.empty(), new ArrayList<>());
+        SymbolTableSnapshot snapshot = SymbolTableSnapshot.of(symbolTable);
+        symbolTable.overrideSymbol(new Symbol(SymbolType.FULL_STOP, '。'));
+        snapshot.getSymbolTable().overrideSymbol(new Symbol(SymbolType.FULL_STOP, '．'));
+        assertEquals(new SymbolTable("en", Optional.empty(), new ArrayList<>()), snapshot.getSymbolTable());
+        assertEquals('.', snapshot.getFullStops()[0]);
+    }
+
+    @Test
+    public void testLookups() throws IOException {
+        SymbolTable symbolTable = new SymbolTable("ja", Optional.of("zenkaku2"), new ArrayList<>());
+        SymbolTableSnapshot snapshot = writeAndRead(SymbolTableSnapshot.of(symbolTable));
+        assertEquals("ja", snapshot.getLang());
+        for (SymbolType type : SymbolType.values()) {
+            assertEquals(symbolTable.getSymbol(type), snapshot.getSymbol(type));
+        }
+        for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+            assertEquals(symbolTable.getSymbolByValue((char) c), snapshot.getSymbolByValue((char) c));
+            assertEquals(symbolTable.containsSymbolByValue((char) c), snapshot.containsSymbolByValue((char) c));
+        }
+    }
+
+    @Test
+    public void testExtractorFromSnapshot() throws IOException {
+        SymbolTable symbolTable = new SymbolTable("ja", Optional.of("zenkaku2"), new ArrayList<>());
+        SentenceExtractor expected = new SentenceExtractor(symbolTable);
+        SentenceExtractor actual = new SentenceExtractor(
+                writeAndRead(SymbolTableSnapshot.of(symbolTable)), TerminatorEngine.REGEX);
+        String input = "これはペンです．あれは「猫」ですか？そうです！Mr. Smith";
+        List<Pair<Integer, Integer>> expectedPositions = new ArrayList<>();
+        List<Pair<Integer, Integer>> actualPositions = new ArrayList<>();
+        assertEquals(expected.extract(input, expectedPositions), actual.extract(input, actualPositions));
+        assertEquals(expectedPositions.size(), actualPositions.size());
+        for (int i = 0; i < expectedPositions.size(); i++) {
+            assertEquals(Arrays.asList(expectedPositions.get(i).first, expectedPositions.get(i).second),
+                    Arrays.asList(actualPositions.get(i).first, actualPositions.get(i).second));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadInvalidData() throws IOException {
+        SymbolTableSnapshot.read(new ByteArrayInputStream("<symbol-conf/>".getBytes("UTF-8")));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadTruncatedData() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        SymbolTableSnapshot.of(new SymbolTable("en", Optional.empty(), new ArrayList<>())).write(bytes);
+        byte[] data = bytes.toByteArray();
+        SymbolTableSnapshot.read(new ByteArrayInputStream(Arrays.copyOf(data, data.length - 1)));
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.config;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SymbolTableTest {
+    @Test
+    public void testGetSymbolByValue() {
+        SymbolTable symbolTable = new SymbolTable("ja", Optional.empty(), new ArrayList<>());
+        assertEquals(SymbolType.FULL_STOP, symbolTable.getSymbolByValue('。').getType());
+        assertEquals(SymbolType.COMMA, symbolTable.getSymbolByValue('、').getType());
+        assertTrue(symbolTable.containsSymbolByValue('。'));
+        assertFalse(symbolTable.containsSymbolByValue('a'));
+        assertNull(symbolTable.getSymbolByValue('￿'));
+    }
+
+    @Test
+    public void testOverrideSymbol() {
+        SymbolTable symbolTable = new SymbolTable("en", Optional.empty(), new ArrayList<>());
+        Symbol fullStop = new Symbol(SymbolType.FULL_STOP, '．', "。.");
+        symbolTable.overrideSymbol(fullStop);
+        assertEquals(fullStop, symbolTable.getSymbol(SymbolType.FULL_STOP));
+        assertEquals(fullStop, symbolTable.getSymbolByValue('．'));
+        // the previous value still refers to the previous symbol
+        assertEquals(SymbolType.FULL_STOP, symbolTable.getSymbolByValue('.').getType());
+        assertEquals('.', symbolTable.getSymbolByValue('.').getValue());
+    }
+
+    @Test
+    public void testCopyIsIndependent() {
+        SymbolTable symbolTable = new SymbolTable("en", Optional.empty(), new ArrayList<>());
+        SymbolTable copy = new SymbolTable(symbolTable);
+        assertEquals(symbolTable, copy);
+        assertEquals(symbolTable.hashCode(), copy.hashCode());
+        copy.overrideSymbol(new Symbol(SymbolType.COMMA, '、'));
+        assertFalse(symbolTable.equals(copy));
+        assertNull(symbolTable.getSymbolByValue('、'));
+        assertEquals(SymbolType.COMMA, copy.getSymbolByValue('、').getType());
+    }
+}
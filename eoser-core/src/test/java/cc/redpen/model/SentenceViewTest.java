@@ -0,0 +1,67 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.model;
+
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class SentenceViewTest {
+    @Test
+    public void testView() {
+        String source = "this is a pen. that is a cat.";
+        SentenceView view = new SentenceView(source, 15, 29);
+        assertSame(source, view.getSource());
+        assertEquals(14, view.length());
+        assertEquals('t', view.charAt(0));
+        assertEquals("that is a cat.", view.getContent());
+        assertEquals("that is a cat.", view.toString());
+        assertEquals("is", view.subSequence(5, 7).toString());
+    }
+
+    @Test
+    public void testToSentence() {
+        SentenceView view = new SentenceView("this is a pen. that is a cat.", 15, 29);
+        assertEquals(new Sentence("that is a cat.", 3, 15), view.toSentence(3));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInvalidRange() {
+        new SentenceView("this is a pen.", 3, 15);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testCharAtOutOfView() {
+        new SentenceView("this is a pen.", 0, 4).charAt(4);
+    }
+
+    @Test
+    public void testLinksAreAllocatedLazily() {
+        Sentence sentence = new Sentence("this is a pen.", 0);
+        assertEquals(Collections.<String>emptyList(), sentence.getLinks());
+        Sentence linked = new Sentence("this is a pen.", 0);
+        linked.addLink("http://example.com");
+        assertEquals(Collections.singletonList("http://example.com"), linked.getLinks());
+        assertEquals(new Sentence("this is a pen.", 0), sentence);
+        assertEquals(new Sentence("this is a pen.", 0).hashCode(), sentence.hashCode());
+        assertEquals(false, sentence.equals(linked));
+    }
+}
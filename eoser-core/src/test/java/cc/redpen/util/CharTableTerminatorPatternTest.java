@@ -0,0 +1,103 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CharTableTerminatorPatternTest {
+    @Test
+    public void testFindTerminator() {
+        TerminatorPattern pattern = new CharTableTerminatorPattern(new char[]{'.', '?', '!'}, new char[]{'\'', '"'});
+        TerminatorMatcher matcher = pattern.matcher("Is it a pen? \"Yes.\"");
+        assertTrue(matcher.find(0));
+        assertEquals(11, matcher.start());
+        assertEquals(12, matcher.end());
+        assertTrue(matcher.find(12));
+        assertEquals(17, matcher.start());
+        assertEquals(19, matcher.end());
+        assertFalse(matcher.find(19));
+    }
+
+    @Test
+    public void testFindNonAsciiTerminator() {
+        TerminatorPattern pattern = new CharTableTerminatorPattern(new char[]{'。', '？', '！'}, new char[]{'’', '”'});
+        TerminatorMatcher matcher = pattern.matcher("これは群馬ですか？いいえ埼玉です。”");
+        assertTrue(matcher.find(0));
+        assertEquals(8, matcher.start());
+        assertTrue(matcher.find(9));
+        assertEquals(16, matcher.start());
+        assertEquals(18, matcher.end());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoEndCharacter() {
+        new CharTableTerminatorPattern(new char[0], new char[]{'"'});
+    }
+
+    @Test
+    public void testSameMatchesAsRegex() {
+        char[] fullStops = {'.', '?', '!', '。', '．'};
+        char[] quotations = {'\'', '"', '”'};
+        Pattern regex = Pattern.compile("\\.'|\\?'|\\!'|。'|．'|\\.\"|\\?\"|\\!\"|。\"|．\"|\\.”|\\?”|\\!”|。”|．”|\\.|\\?|\\!|。|．");
+        TerminatorPattern[] patterns = {
+                new CharTableTerminatorPattern(fullStops, quotations),
+                new RegexTerminatorPattern(regex, fullStops)
+        };
+        String alphabet = "aaaaaaaaaaあ .?!。．'\"”";
+        Random random = new Random(0);
+        for (int i = 0; i < 1000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int length = random.nextInt(200);
+            for (int j = 0; j < length; j++) {
+                sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            // a String is scanned block by block, other sequences character by character
+            for (CharSequence input : new CharSequence[]{sb, sb.toString()}) {
+                Matcher expected = regex.matcher(input);
+                for (TerminatorPattern pattern : patterns) {
+                    TerminatorMatcher actual = pattern.matcher(input);
+                    for (int from = 0; from <= input.length(); from++) {
+                        boolean found = expected.find(from);
+                        assertEquals(found, actual.find(from));
+                        if (found) {
+                            assertEquals(expected.start(), actual.start());
+                            assertEquals(expected.end(), actual.end());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNoMatchAfterFailedFind() {
+        TerminatorMatcher matcher = new RegexTerminatorPattern(Pattern.compile("\\."), new char[]{'.'})
+                .matcher("a pen. a paper");
+        assertTrue(matcher.find(0));
+        assertFalse(matcher.find(6));
+        matcher.start();
+    }
+}
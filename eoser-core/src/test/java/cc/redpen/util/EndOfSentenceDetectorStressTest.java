@@ -0,0 +1,179 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import cc.redpen.SentenceExtractor;
+import cc.redpen.TerminatorEngine;
+import cc.redpen.config.SymbolTable;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Adversarial inputs which made the recursive detector overflow the stack or take quadratic time.
+ * The work is measured as the number of characters read from the input, which has to stay
+ * within a constant factor of the length, and the extraction runs on a thread with a small stack.
+ */
+public class EndOfSentenceDetectorStressTest {
+    private static final int LENGTH = 100000;
+    // characters read per character of the input, the regex engine reads up to 28 of them
+    private static final int MAX_READS_PER_CHARACTER = 32;
+    private static final long STACK_SIZE = 256 * 1024;
+    private static final long TIMEOUT = 60000;
+
+    /**
+     * Input counting the characters read from it.
+     */
+    private static final class CountingCharSequence implements CharSequence {
+        private final String str;
+        private long reads;
+
+        CountingCharSequence(String str) {
+            this.str = str;
+        }
+
+        @Override
+        public int length() {
+            return str.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            reads++;
+            return str.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new CountingCharSequence(str.substring(start, end));
+        }
+
+        @Override
+        public String toString() {
+            return str;
+        }
+    }
+
+    private static String repeat(String unit, int length) {
+        StringBuilder builder = new StringBuilder(length + unit.length());
+        while (builder.length() < length) {
+            builder.append(unit);
+        }
+        return builder.toString();
+    }
+
+    private static String random(String alphabet, int length, long seed) {
+        Random random = new Random(seed);
+        StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+
+    private static void assertBounded(String lang, String text) throws InterruptedException {
+        for (TerminatorEngine engine : TerminatorEngine.values()) {
+            SymbolTable symbolTable = new SymbolTable(lang, Optional.empty(), new ArrayList<>());
+            SentenceExtractor extractor = new SentenceExtractor(symbolTable, engine);
+            CountingCharSequence input = new CountingCharSequence(text);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Thread thread = new Thread(null, () -> {
+                try {
+                    extractor.extract(input, (startPosition, endPosition) -> {
+                    });
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            }, "stress", STACK_SIZE);
+            thread.start();
+            thread.join(TIMEOUT);
+            assertTrue(engine + " did not finish in time", !thread.isAlive());
+            assertTrue(engine + " failed with " + failure.get(), failure.get() == null);
+            assertTrue(engine + " read " + input.reads + " characters",
+                    input.reads <= (long) MAX_READS_PER_CHARACTER * text.length());
+        }
+    }
+
+    private static void assertBounded(String lang, IntFunction<String> generator) throws InterruptedException {
+        // the work for the doubled input is bounded by the same factor, so it grows linearly
+        assertBounded(lang, generator.apply(LENGTH));
+        assertBounded(lang, generator.apply(2 * LENGTH));
+    }
+
+    @Test
+    public void testPeriodRun() throws InterruptedException {
+        assertBounded("en", length -> repeat(".", length));
+    }
+
+    @Test
+    public void testMarkRun() throws InterruptedException {
+        assertBounded("en", length -> repeat("!?", length));
+    }
+
+    @Test
+    public void testPeriodRunBeforeWord() throws InterruptedException {
+        assertBounded("en", length -> repeat(".", length) + "end");
+    }
+
+    @Test
+    public void testJapanesePeriodRun() throws InterruptedException {
+        assertBounded("ja", length -> repeat("。", length));
+    }
+
+    @Test
+    public void testJapaneseMarkRun() throws InterruptedException {
+        assertBounded("ja", length -> repeat("！？。", length));
+    }
+
+    @Test
+    public void testDenseAbbreviations() throws InterruptedException {
+        assertBounded("en", length -> repeat("Mr. ", length));
+    }
+
+    @Test
+    public void testAdjacentAbbreviations() throws InterruptedException {
+        assertBounded("en", length -> repeat("U.S.A.Mr.Dr.", length));
+    }
+
+    @Test
+    public void testAbbreviationsAfterJapanesePeriod() throws InterruptedException {
+        assertBounded("ja", length -> "あ。" + repeat("Mr.", length));
+    }
+
+    @Test
+    public void testQuoteStorm() throws InterruptedException {
+        assertBounded("en", length -> repeat(".”’", length));
+    }
+
+    @Test
+    public void testJapaneseQuoteStorm() throws InterruptedException {
+        assertBounded("ja", length -> repeat("。」』", length));
+    }
+
+    @Test
+    public void testRandomTerminators() throws InterruptedException {
+        assertBounded("en", length -> random(".!? \n”’\"'a", length, length));
+        assertBounded("ja", length -> random("。！？」』．.あ\n", length, length));
+    }
+}
@@ -229,4 +229,34 @@ public class EndOfSentenceDetectorTest {
         EndOfSentenceDetector detector = new EndOfSentenceDetector(pattern, whiteList);
         assertEquals(-1, detector.getSentenceEndPosition(str));
     }
+
+    @Test
+    public void testCursorFindsSameEndsAsPerSentenceLookups() {
+        Pattern pattern = Pattern.compile("\\.\"|\\?\"|\\.|\\?|\\!");
+        String str = "He is Mr. Smith. At 10 a.m. we met... But why?\"Really?\" he asked!Okay. "
+                + "That is U.S.A. news. Wait... no.";
+        List<String> whiteList = generateUmList("Mr.", "a.m.", "U.S.A.");
+        EndOfSentenceDetector detector = new EndOfSentenceDetector(pattern, whiteList);
+        EndOfSentenceCursor cursor = detector.cursor(str);
+        // the positions found by the per-sentence lookups of the original implementation
+        for (int endPosition : new int[]{15, 36, 54, 69, 90, 98, 102, -1}) {
+            assertEquals(endPosition, cursor.next());
+        }
+        assertEquals(str.length(), cursor.getPosition());
+    }
+
+    @Test
+    public void testResetCursor() {
+        Pattern pattern = Pattern.compile("\\.\"|\\?\"|\\.|\\?|\\!");
+        EndOfSentenceDetector detector = new EndOfSentenceDetector(pattern, generateUmList("Mr.", "a.m."));
+        EndOfSentenceCursor cursor = detector.cursor("He is Mr. Smith. At 10 a.m. we met.");
+        assertEquals(15, cursor.next());
+        cursor.reset("Hi. Mr. X");
+        assertEquals(0, cursor.getPosition());
+        assertEquals(2, cursor.next());
+        assertEquals(-1, cursor.next());
+        cursor.reset("a.m. is it? Yes");
+        assertEquals(10, cursor.next());
+        assertEquals(-1, cursor.next());
+    }
 }
@@ -0,0 +1,140 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import cc.redpen.SentenceExtractor;
+import cc.redpen.TerminatorEngine;
+import cc.redpen.config.SymbolTable;
+import cc.redpen.config.SymbolTableSnapshot;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+public class FlightRecorderEventsTest {
+    private static final String[] EVENT_NAMES = {
+            "cc.redpen.Extract", "cc.redpen.ExtractorConstruction", "cc.redpen.SymbolTableConstruction"};
+
+    @Before
+    public void setUp() {
+        assumeTrue(FlightRecorderEvents.isAvailable());
+    }
+
+    private static List<RecordedEvent> record(Duration threshold, Runnable runnable) throws IOException {
+        Path file = Files.createTempFile("eoser", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                for (String name : EVENT_NAMES) {
+                    recording.enable(name).withThreshold(threshold);
+                }
+                recording.start();
+                runnable.run();
+                recording.stop();
+                recording.dump(file);
+            }
+            List<RecordedEvent> events = new ArrayList<>();
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                if (event.getEventType().getName().startsWith("cc.redpen.")) {
+                    events.add(event);
+                }
+            }
+            return events;
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static RecordedEvent find(List<RecordedEvent> events, String name) {
+        RecordedEvent found = null;
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(name)) {
+                assertNull(found);
+                found = event;
+            }
+        }
+        return found;
+    }
+
+    @Test
+    public void testEvents() throws IOException {
+        String text = "今日は晴れ．明日は雨．";
+        List<RecordedEvent> events = record(Duration.ZERO, () -> {
+            SymbolTable symbolTable = new SymbolTable("ja", Optional.of("zenkaku2"), new ArrayList<>());
+            SentenceExtractor extractor = new SentenceExtractor(symbolTable, TerminatorEngine.CHAR_TABLE);
+            extractor.extract(text, new ArrayList<>());
+        });
+        assertEquals(3, events.size());
+
+        RecordedEvent symbolTableEvent = find(events, "cc.redpen.SymbolTableConstruction");
+        assertEquals("ja", symbolTableEvent.getString("language"));
+        assertEquals("zenkaku2", symbolTableEvent.getString("type"));
+        assertTrue(symbolTableEvent.getInt("symbols") > 0);
+
+        RecordedEvent constructionEvent = find(events, "cc.redpen.ExtractorConstruction");
+        assertEquals("ja", constructionEvent.getString("language"));
+        assertEquals("CHAR_TABLE", constructionEvent.getString("engine"));
+
+        RecordedEvent extractEvent = find(events, "cc.redpen.Extract");
+        assertEquals("ja", extractEvent.getString("language"));
+        assertEquals(text.length(), extractEvent.getInt("length"));
+        assertEquals(2, extractEvent.getInt("sentences"));
+    }
+
+    @Test
+    public void testEventsOfExtractorBuiltFromSnapshot() throws IOException {
+        SymbolTableSnapshot snapshot = SymbolTableSnapshot.of(
+                new SymbolTable("ja", Optional.of("zenkaku2"), new ArrayList<>()));
+        List<RecordedEvent> events = record(Duration.ZERO, () -> {
+            SentenceExtractor extractor = SentenceExtractor.builder(snapshot)
+                    .whiteWords(Collections.singletonList("Ｎｏｄｅ．ｊｓ"))
+                    .build();
+            extractor.extract("今日は晴れ．", new ArrayList<>());
+        });
+        assertEquals("ja", find(events, "cc.redpen.ExtractorConstruction").getString("language"));
+        assertEquals("ja", find(events, "cc.redpen.Extract").getString("language"));
+    }
+
+    @Test
+    public void testFastCallsAreNotRecorded() throws IOException {
+        SentenceExtractor extractor = new SentenceExtractor(new SymbolTable("en", Optional.empty(), new ArrayList<>()));
+        List<RecordedEvent> events = record(Duration.ofHours(1),
+                () -> extractor.extract("This is a pen. That is a desk.", new ArrayList<>()));
+        assertEquals(0, events.size());
+    }
+
+    @Test
+    public void testNotRecording() {
+        assertNull(FlightRecorderEvents.beginExtract());
+        FlightRecorderEvents.endExtract(null, "en", 0, 0);
+    }
+}
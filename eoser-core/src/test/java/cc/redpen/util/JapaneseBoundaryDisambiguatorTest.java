@@ -0,0 +1,163 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import cc.redpen.SentenceExtractor;
+import cc.redpen.TerminatorEngine;
+import cc.redpen.config.SymbolTable;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JapaneseBoundaryDisambiguatorTest {
+    /**
+     * Fake analyzer giving a morpheme per character, except for the listed words.
+     */
+    private static class FakeTokenizer implements Function<String, List<JapaneseBoundaryDisambiguator.Morpheme>> {
+        private final String[] words;
+        private int calls;
+
+        FakeTokenizer(String... words) {
+            this.words = words;
+        }
+
+        @Override
+        public List<JapaneseBoundaryDisambiguator.Morpheme> apply(String text) {
+            calls++;
+            List<JapaneseBoundaryDisambiguator.Morpheme> morphemes = new ArrayList<>();
+            int i = 0;
+            while (i < text.length()) {
+                int length = 1;
+                for (String word : words) {
+                    if (text.startsWith(word, i)) {
+                        length = word.length();
+                    }
+                }
+                String partOfSpeech = "とをは".indexOf(text.charAt(i)) >= 0 ? "助詞,格助詞" : "名詞,一般";
+                morphemes.add(new JapaneseBoundaryDisambiguator.Morpheme(i, i + length, partOfSpeech));
+                i += length;
+            }
+            return morphemes;
+        }
+    }
+
+    private static List<String> extract(SentenceExtractor extractor, String text) {
+        List<Pair<Integer, Integer>> positions = new ArrayList<>();
+        extractor.extract(text, positions);
+        List<String> contents = new ArrayList<>();
+        for (Pair<Integer, Integer> position : positions) {
+            contents.add(text.substring(position.first, position.second));
+        }
+        return contents;
+    }
+
+    @Test
+    public void testQuotationFollowedByParticle() {
+        JapaneseBoundaryDisambiguator disambiguator = new JapaneseBoundaryDisambiguator(new FakeTokenizer());
+        String str = "「はい。」と言った。";
+        assertEquals(-1, disambiguator.resolve(str, 3));
+    }
+
+    @Test
+    public void testQuotationFollowedByQuotation() {
+        JapaneseBoundaryDisambiguator disambiguator = new JapaneseBoundaryDisambiguator(new FakeTokenizer());
+        String str = "「はい。」「いいえ。」";
+        assertEquals(4, disambiguator.resolve(str, 3));
+    }
+
+    @Test
+    public void testPeriodInWord() {
+        JapaneseBoundaryDisambiguator disambiguator =
+                new JapaneseBoundaryDisambiguator(new FakeTokenizer("Ｎｏｄｅ．ｊｓ"));
+        assertEquals(-1, disambiguator.resolve("Ｎｏｄｅ．ｊｓを使う．", 4));
+    }
+
+    @Test
+    public void testPeriodBetweenSentences() {
+        JapaneseBoundaryDisambiguator disambiguator = new JapaneseBoundaryDisambiguator(new FakeTokenizer());
+        assertEquals(3, disambiguator.resolve("ＸＹＺ．ＡＢＣ", 3));
+    }
+
+    @Test
+    public void testUnambiguousEndIsNotTokenized() {
+        FakeTokenizer tokenizer = new FakeTokenizer();
+        JapaneseBoundaryDisambiguator disambiguator = new JapaneseBoundaryDisambiguator(tokenizer);
+        assertEquals(2, disambiguator.resolve("はい。いいえ。", 2));
+        assertEquals(6, disambiguator.resolve("はい。いいえ。", 6));
+        assertEquals(0, tokenizer.calls);
+    }
+
+    @Test
+    public void testIsPeriodInLatinRun() {
+        assertTrue(JapaneseBoundaryDisambiguator.isPeriodInLatinRun("a.b", 1));
+        assertTrue(JapaneseBoundaryDisambiguator.isPeriodInLatinRun("１．２", 1));
+        assertFalse(JapaneseBoundaryDisambiguator.isPeriodInLatinRun("a. b", 1));
+        assertFalse(JapaneseBoundaryDisambiguator.isPeriodInLatinRun("あ．b", 1));
+        assertFalse(JapaneseBoundaryDisambiguator.isPeriodInLatinRun("a.", 1));
+    }
+
+    @Test
+    public void testExtractWithDisambiguator() {
+        SymbolTable symbolTable = new SymbolTable("ja", Optional.empty(), new ArrayList<>());
+        JapaneseBoundaryDisambiguator disambiguator = new JapaneseBoundaryDisambiguator(new FakeTokenizer());
+        SentenceExtractor extractor = SentenceExtractor.builder(symbolTable)
+                .disambiguator(disambiguator)
+                .build();
+        List<String> sentences = extract(extractor, "「はい。」と言った。「いいえ。」「はい。」");
+        assertEquals(3, sentences.size());
+        assertEquals("「はい。」と言った。", sentences.get(0));
+        assertEquals("「いいえ。」", sentences.get(1));
+        assertEquals("「はい。」", sentences.get(2));
+    }
+
+    @Test
+    public void testExtractLatinWordWithDisambiguator() {
+        SymbolTable symbolTable = new SymbolTable("ja", Optional.of("zenkaku2"), new ArrayList<>());
+        JapaneseBoundaryDisambiguator disambiguator =
+                new JapaneseBoundaryDisambiguator(new FakeTokenizer("Ｎｏｄｅ．ｊｓ"));
+        SentenceExtractor extractor = SentenceExtractor.builder(symbolTable)
+                .engine(TerminatorEngine.CHAR_TABLE)
+                .disambiguator(disambiguator)
+                .build();
+        List<String> sentences = extract(extractor, "Ｎｏｄｅ．ｊｓを使う．速い．");
+        assertEquals(2, sentences.size());
+        assertEquals("Ｎｏｄｅ．ｊｓを使う．", sentences.get(0));
+    }
+
+    @Test
+    public void testExtractWithWhiteWordsAndDisambiguator() {
+        SymbolTable symbolTable = new SymbolTable("ja", Optional.empty(), new ArrayList<>());
+        JapaneseBoundaryDisambiguator disambiguator = new JapaneseBoundaryDisambiguator(new FakeTokenizer());
+        SentenceExtractor extractor = SentenceExtractor.builder(symbolTable)
+                .whiteWords(Collections.singletonList("モーニング娘。"))
+                .disambiguator(disambiguator)
+                .build();
+        List<String> sentences = extract(extractor, "モーニング娘。が歌った。「はい。」と言った。");
+        assertEquals(2, sentences.size());
+        assertEquals("モーニング娘。が歌った。", sentences.get(0));
+        assertEquals("「はい。」と言った。", sentences.get(1));
+    }
+}
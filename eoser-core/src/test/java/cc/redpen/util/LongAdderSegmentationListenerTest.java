@@ -0,0 +1,102 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import cc.redpen.SentenceExtractor;
+import cc.redpen.config.SymbolTable;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LongAdderSegmentationListenerTest {
+    private static SentenceExtractor createExtractor(SegmentationListener listener) {
+        SymbolTable symbolTable = new SymbolTable("en", Optional.empty(), new ArrayList<>());
+        return SentenceExtractor.builder(symbolTable).listener(listener).build();
+    }
+
+    @Test
+    public void testCounters() {
+        LongAdderSegmentationListener listener = new LongAdderSegmentationListener();
+        SentenceExtractor extractor = createExtractor(listener);
+        String text = "Mr. Smith is here. Really... yes.";
+        List<Pair<Integer, Integer>> positions = new ArrayList<>();
+        extractor.extract(text, positions);
+        assertEquals(3, positions.size());
+        assertEquals(1, listener.getCalls());
+        assertEquals(text.length(), listener.getCharacters());
+        assertEquals(3, listener.getSentences());
+        assertTrue(listener.getNanos() > 0);
+        assertEquals(listener.getNanos(), listener.getMaxNanos());
+        assertEquals(1, listener.getWhiteWordHits());
+        assertEquals(1, listener.getWhiteListRejections());
+        assertEquals(1, listener.getMaxWhiteListDepth());
+        assertEquals(2, listener.getSuccessivePeriods());
+        assertEquals(2, listener.getMaxSuccessivePeriodsDepth());
+    }
+
+    @Test
+    public void testSuccessiveWhiteWords() {
+        LongAdderSegmentationListener listener = new LongAdderSegmentationListener();
+        SentenceExtractor extractor = createExtractor(listener);
+        extractor.extract("Mr. Mrs. Dr. Smith.", new ArrayList<>());
+        assertEquals(3, listener.getWhiteWordHits());
+        assertEquals(3, listener.getWhiteListRejections());
+        assertEquals(3, listener.getMaxWhiteListDepth());
+    }
+
+    @Test
+    public void testBatchReportsEachText() {
+        LongAdderSegmentationListener listener = new LongAdderSegmentationListener();
+        SentenceExtractor extractor = createExtractor(listener);
+        extractor.extractBatch(Arrays.asList("One. Two.", "Three", "Four."));
+        assertEquals(3, listener.getCalls());
+        assertEquals(19, listener.getCharacters());
+        assertEquals(3, listener.getSentences());
+    }
+
+    @Test
+    public void testReset() {
+        LongAdderSegmentationListener listener = new LongAdderSegmentationListener();
+        createExtractor(listener).extract("Mr. Smith is here.", new ArrayList<>());
+        listener.reset();
+        assertEquals(0, listener.getCalls());
+        assertEquals(0, listener.getCharacters());
+        assertEquals(0, listener.getWhiteWordHits());
+        assertEquals(0, listener.getMaxNanos());
+    }
+
+    @Test
+    public void testNoListenerGivesSameSentences() {
+        String text = "Mr. Smith is here. Really... yes. U.S.A. is big.";
+        List<Pair<Integer, Integer>> expected = new ArrayList<>();
+        List<Pair<Integer, Integer>> actual = new ArrayList<>();
+        createExtractor(SegmentationListener.NONE).extract(text, expected);
+        createExtractor(new LongAdderSegmentationListener()).extract(text, actual);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).first, actual.get(i).first);
+            assertEquals(expected.get(i).second, actual.get(i).second);
+        }
+    }
+}
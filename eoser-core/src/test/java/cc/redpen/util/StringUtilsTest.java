@@ -19,6 +19,7 @@ package cc.redpen.util;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -68,4 +69,12 @@ public class StringUtilsTest {
         assertFalse(StringUtils.isBasicLatin('・'));
     }
 
+    @Test
+    public void testSameBlocksAsUnicodeBlock() {
+        for (int c = Character.MIN_VALUE; c <= Character.MAX_VALUE; c++) {
+            Character.UnicodeBlock block = Character.UnicodeBlock.of(c);
+            assertEquals(block == Character.UnicodeBlock.BASIC_LATIN, StringUtils.isBasicLatin((char) c));
+            assertEquals(block == Character.UnicodeBlock.KATAKANA, StringUtils.isKatakana((char) c));
+        }
+    }
 }
@@ -0,0 +1,93 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class Utf8CharSequenceTest {
+    private static final String TEXT = "Is it a pen? これはペンです。 café \uD83D\uDE00!";
+
+    @Test
+    public void testCharAt() {
+        Utf8CharSequence sequence = new Utf8CharSequence(TEXT.getBytes(StandardCharsets.UTF_8));
+        assertEquals(TEXT.length(), sequence.length());
+        assertEquals(TEXT, sequence.toString());
+        assertEquals(TEXT.substring(13, 21), sequence.subSequence(13, 21));
+        // in any order, forward and backward
+        Random random = new Random(0);
+        for (int i = 0; i < 10000; i++) {
+            int index = random.nextInt(TEXT.length());
+            assertEquals(TEXT.charAt(index), sequence.charAt(index));
+        }
+        for (int i = TEXT.length() - 1; i >= 0; i--) {
+            assertEquals(TEXT.charAt(i), sequence.charAt(i));
+        }
+    }
+
+    @Test
+    public void testByteOffset() {
+        Utf8CharSequence sequence = new Utf8CharSequence(ByteBuffer.wrap(TEXT.getBytes(StandardCharsets.UTF_8)));
+        for (int i = 0; i <= TEXT.length(); i++) {
+            int expected = TEXT.substring(0, i).getBytes(StandardCharsets.UTF_8).length;
+            if (i > 0 && Character.isLowSurrogate(TEXT.charAt(i - 1)) && i < TEXT.length()
+                    || i < TEXT.length() && Character.isLowSurrogate(TEXT.charAt(i))) {
+                continue;
+            }
+            assertEquals(expected, sequence.byteOffset(i));
+        }
+        int pair = TEXT.indexOf('\uD83D');
+        assertEquals(sequence.byteOffset(pair), sequence.byteOffset(pair + 1));
+    }
+
+    @Test
+    public void testBufferPosition() {
+        ByteBuffer buffer = ByteBuffer.wrap("xxこれ".getBytes(StandardCharsets.UTF_8));
+        buffer.position(2);
+        Utf8CharSequence sequence = new Utf8CharSequence(buffer);
+        assertEquals("これ", sequence.toString());
+        assertEquals(3, sequence.byteOffset(1));
+        assertEquals(2, buffer.position());
+    }
+
+    @Test
+    public void testMalformed() {
+        byte[][] inputs = {
+                {(byte) 0x80},
+                {(byte) 0xc0, (byte) 0xaf},
+                {(byte) 0xe3, (byte) 0x80},
+                {(byte) 0xe0, (byte) 0x80, (byte) 0xaf},
+                {(byte) 0xed, (byte) 0xa0, (byte) 0x80},
+                {(byte) 0xf4, (byte) 0x90, (byte) 0x80, (byte) 0x80},
+                {(byte) 0xff}
+        };
+        for (byte[] input : inputs) {
+            try {
+                new Utf8CharSequence(input);
+                throw new AssertionError("accepted malformed input");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+/**
+ * redpen: a text inspection tool
+ * Copyright (c) 2014-2015 Recruit Technologies Co., Ltd. and contributors
+ * (see CONTRIBUTORS.md)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package cc.redpen.util;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class WhiteWordAutomatonTest {
+    private static Set<Integer> findPositions(List<String> words, String str) {
+        BitSet bits = new BitSet();
+        new WhiteWordAutomaton(words).findPositions(str, bits);
+        Set<Integer> positions = new TreeSet<>();
+        bits.stream().forEach(positions::add);
+        return positions;
+    }
+
+    // reference implementation with String#indexOf
+    private static Set<Integer> findPositionsWithIndexOf(List<String> words, String str) {
+        Set<Integer> positions = new TreeSet<>();
+        for (String word : words) {
+            int offset = 0;
+            int start;
+            while ((start = str.indexOf(word, offset)) >= 0) {
+                for (int i = start; i < start + word.length(); i++) {
+                    positions.add(i);
+                }
+                offset = start + word.length();
+            }
+        }
+        return positions;
+    }
+
+    @Test
+    public void testFindPositions() {
+        assertEquals(new TreeSet<>(Arrays.asList(6, 7, 8)),
+                findPositions(Arrays.asList("Mr.", "Dr."), "He is Mr. United States."));
+    }
+
+    @Test
+    public void testFindPositionsOfWordsSharingSuffix() {
+        assertEquals(new TreeSet<>(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7, 8)),
+                findPositions(Arrays.asList("Co., Ltd.", "Ltd.", "Co."), "Co., Ltd."));
+    }
+
+    @Test
+    public void testFindPositionsOfSelfOverlappingWord() {
+        // the second occurrence overlaps the first one and is skipped as in String#indexOf
+        assertEquals(new TreeSet<>(Arrays.asList(0, 1, 2, 3)),
+                findPositions(Arrays.asList("a.a."), "a.a.a."));
+        assertEquals(new TreeSet<>(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7)),
+                findPositions(Arrays.asList("a.a."), "a.a.a.a."));
+    }
+
+    @Test
+    public void testFindPositionsWithoutWords() {
+        assertEquals(new HashSet<Integer>(), findPositions(new ArrayList<>(), "He is Mr. United States."));
+        assertEquals(0, new WhiteWordAutomaton(Arrays.asList("", "")).getMaxWordLength());
+    }
+
+    @Test
+    public void testFindPositionsWithLargeDictionary() {
+        Random random = new Random(0);
+        String alphabet = "abc.";
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            words.add(randomString(random, alphabet, 1 + random.nextInt(8)));
+        }
+        for (int i = 0; i < 20; i++) {
+            String str = randomString(random, alphabet + " ", 200);
+            assertEquals(findPositionsWithIndexOf(words, str), findPositions(words, str));
+        }
+    }
+
+    @Test
+    public void testWriteAndLoad() throws IOException {
+        Random random = new Random(1);
+        String alphabet = "abc.あ";
+        List<String> words = new ArrayList<>(Arrays.asList("a.a.", "Mr."));
+        for (int i = 0; i < 5000; i++) {
+            words.add(randomString(random, alphabet, 1 + random.nextInt(8)));
+        }
+        WhiteWordAutomaton automaton = new WhiteWordAutomaton(words);
+        Path file = Files.createTempFile("white-words", ".eosw");
+        try {
+            try (OutputStream out = Files.newOutputStream(file)) {
+                automaton.write(out);
+            }
+            WhiteWordAutomaton loaded = WhiteWordAutomaton.load(file);
+            assertEquals(automaton.getMaxWordLength(), loaded.getMaxWordLength());
+            for (int i = 0; i < 50; i++) {
+                String str = randomString(random, alphabet + " ", 200);
+                BitSet expected = new BitSet();
+                automaton.findPositions(str, expected);
+                BitSet actual = new BitSet();
+                loaded.findPositions(str, actual);
+                assertEquals(str, expected, actual);
+                assertEquals(automaton.covers(str, 100), loaded.covers(str, 100));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testReadEmptyAutomaton() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new WhiteWordAutomaton(new ArrayList<>()).write(bytes);
+        WhiteWordAutomaton loaded = WhiteWordAutomaton.read(ByteBuffer.wrap(bytes.toByteArray()));
+        assertEquals(0, loaded.getMaxWordLength());
+        assertFalse(loaded.covers("Mr. Smith", 2));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadInvalidData() throws IOException {
+        WhiteWordAutomaton.read(ByteBuffer.wrap("Mr.\nMrs.\n".getBytes("UTF-8")));
+    }
+
+    @Test
+    public void testReadTruncatedData() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new WhiteWordAutomaton(Arrays.asList("Mr.", "Mrs.")).write(bytes);
+        byte[] data = bytes.toByteArray();
+        assertTrue(WhiteWordAutomaton.read(ByteBuffer.wrap(data)).covers("Mr. Smith", 2));
+        try {
+            WhiteWordAutomaton.read(ByteBuffer.wrap(Arrays.copyOf(data, data.length - 1)));
+            throw new AssertionError("truncated data is read");
+        } catch (IOException e) {
+            assertEquals("Corrupted white word automaton", e.getMessage());
+        }
+    }
+
+    private static void assertCorrupted(byte[] data, int offset, int value) throws IOException {
+        byte[] corrupted = data.clone();
+        ByteBuffer.wrap(corrupted).order(ByteOrder.LITTLE_ENDIAN).putInt(offset, value);
+        Path file = Files.createTempFile("white-words", ".eosw");
+        try {
+            Files.write(file, corrupted);
+            WhiteWordAutomaton.load(file);
+            throw new AssertionError("corrupted data is loaded: " + offset + " = " + value);
+        } catch (IOException e) {
+            assertEquals("Corrupted white word automaton", e.getMessage());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testLoadCorruptedFile() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        // states: root, "M", "Mr", "Mr.", "Mrs", "Mrs.", "r", "s"
+        new WhiteWordAutomaton(Arrays.asList("Mr.", "Mrs.", "r", "s")).write(bytes);
+        byte[] data = bytes.toByteArray();
+        int stateCount = 8;
+        int transitionCount = 7;
+        int offsets = 24;
+        int targets = offsets + (stateCount + 1) * 4;
+        int failures = targets + transitionCount * 4;
+        int outputs = failures + stateCount * 4;
+        int wordLengths = outputs + stateCount * 4;
+        int overlapIndices = wordLengths + stateCount * 4;
+        WhiteWordAutomaton.read(ByteBuffer.wrap(data));
+
+        // decreasing and out of range transition offsets
+        assertCorrupted(data, offsets + 2 * 4, 0);
+        assertCorrupted(data, offsets + 1 * 4, transitionCount + 1);
+        // out of range transition targets, and a target reached twice
+        assertCorrupted(data, targets, stateCount);
+        assertCorrupted(data, targets, -1);
+        assertCorrupted(data, targets + 4, 1);
+        // failure cycles and out of range failures
+        assertCorrupted(data, failures, 1);
+        assertCorrupted(data, failures + 3 * 4, 3);
+        assertCorrupted(data, failures + 2 * 4, 5);
+        assertCorrupted(data, failures + 2 * 4, stateCount);
+        // output cycles and outputs without words
+        assertCorrupted(data, outputs + 3 * 4, 5);
+        assertCorrupted(data, outputs + 3 * 4, 1);
+        // word lengths going before the start of the input
+        assertCorrupted(data, wordLengths + 3 * 4, 4);
+        // overlap index out of the table of the scan
+        assertCorrupted(data, overlapIndices + 3 * 4, 0);
+    }
+
+    private static String randomString(Random random, String alphabet, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+}